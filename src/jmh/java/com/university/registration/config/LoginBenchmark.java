@@ -0,0 +1,69 @@
+package com.university.registration.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.rememberme.TokenBasedRememberMeServices;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Logins per second on one core for each BCrypt work factor: checking the password through BoundedPasswordEncoder
+// (one hashing thread) against signing in from the remember-me cookie. The user lookup is left out of both.
+// Run with: mvn -Pbenchmark verify -Djmh.args="LoginBenchmark [-p strength=10]"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "ali123";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BoundedPasswordEncoder encoder;
+    private String hash;
+    private TokenBasedRememberMeServices rememberMe;
+    private Cookie cookie;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BoundedPasswordEncoder(strength, 1, 1000, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        hash = encoder.encode(PASSWORD);
+        UserDetails user = User.withUsername("ali").password(hash).roles("STUDENT").build();
+        rememberMe = new TokenBasedRememberMeServices("benchmark", username -> user);
+        rememberMe.setAlwaysRemember(true);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rememberMe.loginSuccess(new MockHttpServletRequest(), response,
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        cookie = response.getCookie("remember-me");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encoder.destroy();
+    }
+
+    @Benchmark
+    public boolean passwordLogin() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public Authentication rememberMeLogin() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+        return rememberMe.autoLogin(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,65 @@
+package com.university.registration.service;
+
+import com.university.registration.CourseRegistrationSystemApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// The application against a private in-memory H2, filled by SyntheticDataGenerator once per trial.
+// Scale from the command line, e.g. -p students=200000 -p courses=2000 -p enrollmentsPerStudent=12
+@State(Scope.Benchmark)
+public class BenchmarkApplication {
+
+    @Param("10000")
+    public int students;
+
+    @Param("200")
+    public int courses;
+
+    @Param("8")
+    public int enrollmentsPerStudent;
+
+    @Param("42")
+    public long seed;
+
+    ConfigurableApplicationContext context;
+    CourseRegistrationService registrationService;
+    PrerequisiteGraph prerequisiteGraph;
+    CourseCatalog courseCatalog;
+    TransactionTemplate transactionTemplate;
+    BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(CourseRegistrationSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.profiles.active=synthetic",
+                        "--registration.synthetic.students=" + students,
+                        "--registration.synthetic.courses=" + courses,
+                        "--registration.synthetic.enrollments-per-student=" + enrollmentsPerStudent,
+                        "--registration.synthetic.seed=" + seed,
+                        "--registration.synthetic.users=0");
+        registrationService = context.getBean(CourseRegistrationService.class);
+        prerequisiteGraph = context.getBean(PrerequisiteGraph.class);
+        courseCatalog = context.getBean(CourseCatalog.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        data = BenchmarkData.load(context.getBean(JdbcTemplate.class));
+        courseCatalog.invalidate();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.university.registration.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Fixture added on top of the synthetic data set: courses anyone can register for, and the
+// MTH101 -> MTH102 -> MTH301 -> ECE422 chain with a student who has passed all of it but ECE422
+class BenchmarkData {
+
+    static final long CHAIN_STUDENT_ID = 9_000_000_000L;
+    private static final long FIRST_FIXTURE_ENROLLMENT_ID = 9_000_000_000L;
+    // No prerequisites, no capacity limit, no major restriction and nobody enrolled
+    static final int OPEN_COURSES = 10;
+
+    final List<Long> studentIds;
+    final List<String> openCourses = new ArrayList<>();
+
+    private BenchmarkData(List<Long> studentIds) {
+        this.studentIds = studentIds;
+    }
+
+    static BenchmarkData load(JdbcTemplate jdbc) {
+        BenchmarkData data = new BenchmarkData(jdbc.queryForList("select id from students order by id", Long.class));
+
+        List<Object[]> courses = new ArrayList<>();
+        for (int i = 0; i < OPEN_COURSES; i++) {
+            String code = String.format("OPEN%02d", i);
+            data.openCourses.add(code);
+            courses.add(new Object[]{code, "Open Course " + i});
+        }
+        courses.add(new Object[]{"MTH101", "Calculus I"});
+        courses.add(new Object[]{"MTH102", "Calculus II"});
+        courses.add(new Object[]{"MTH301", "Differential Equations"});
+        courses.add(new Object[]{"ECE422", "Artificial Intelligence"});
+        jdbc.batchUpdate("insert into courses (code, name, capacity) values (?, ?, null)", courses);
+        jdbc.batchUpdate("insert into course_prerequisites (course_code, prerequisite_code) values (?, ?)", List.of(
+                new Object[]{"MTH102", "MTH101"},
+                new Object[]{"MTH301", "MTH102"},
+                new Object[]{"ECE422", "MTH301"}));
+
+        jdbc.update("insert into students (id, name, major) values (?, 'Chain Student', 'COMPUTER_ENGINEERING')",
+                CHAIN_STUDENT_ID);
+        long enrollmentId = FIRST_FIXTURE_ENROLLMENT_ID;
+        List<Object[]> passed = new ArrayList<>();
+        for (String code : List.of("MTH101", "MTH102", "MTH301")) {
+            passed.add(new Object[]{enrollmentId++, CHAIN_STUDENT_ID, code});
+        }
+        jdbc.batchUpdate("insert into enrollments (id, student_id, course_code, status, grade, passed, version) "
+                + "values (?, ?, ?, 'APPROVED', 90, true, 0)", passed);
+        return data;
+    }
+}
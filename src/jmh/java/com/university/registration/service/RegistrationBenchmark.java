@@ -0,0 +1,101 @@
+package com.university.registration.service;
+
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn -Pbenchmark verify [-Djmh.args="RegistrationBenchmark.checkPrerequisites -p students=100000"]
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    // A registration that always succeeds; its transaction is rolled back so the data set does not grow
+    @State(Scope.Thread)
+    public static class Registration {
+        Long studentId;
+        String courseCode;
+
+        @Setup(Level.Invocation)
+        public void pick(BenchmarkApplication app) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            studentId = app.data.studentIds.get(random.nextInt(app.data.studentIds.size()));
+            courseCode = app.data.openCourses.get(random.nextInt(app.data.openCourses.size()));
+        }
+    }
+
+    // Same, but with the catalog and the student's passed-course bitset dropped beforehand
+    @State(Scope.Thread)
+    public static class ColdRegistration extends Registration {
+
+        @Override
+        @Setup(Level.Invocation)
+        public void pick(BenchmarkApplication app) {
+            super.pick(app);
+            app.courseCatalog.invalidate();
+            app.prerequisiteGraph.evictStudent(studentId);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Chain {
+        Student student;
+        Course target;
+
+        @Setup(Level.Trial)
+        public void load() {
+            student = new Student(BenchmarkData.CHAIN_STUDENT_ID, "Chain Student", Student.Major.COMPUTER_ENGINEERING);
+            target = new Course("ECE422", "Artificial Intelligence");
+        }
+    }
+
+    @Benchmark
+    public Enrollment registerCourseWarm(BenchmarkApplication app, Registration registration) {
+        return register(app, registration);
+    }
+
+    @Benchmark
+    public Enrollment registerCourseCold(BenchmarkApplication app, ColdRegistration registration) {
+        return register(app, registration);
+    }
+
+    private static Enrollment register(BenchmarkApplication app, Registration registration) {
+        return app.transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return app.registrationService.registerCourse(registration.studentId, registration.courseCode);
+        });
+    }
+
+    // MTH101 -> MTH102 -> MTH301 -> ECE422, answered from the graph and the cached bitset
+    @Benchmark
+    public void checkPrerequisites(BenchmarkApplication app, Chain chain) {
+        app.registrationService.checkPrerequisites(chain.student, chain.target);
+    }
+
+    @Benchmark
+    public void validateCourseMajor(BenchmarkApplication app, Chain chain) {
+        app.registrationService.validateCourseMajor(chain.student, chain.target);
+    }
+
+    // What AdminController.dashboard asks the service for with no filter
+    @Benchmark
+    public void adminDashboard(BenchmarkApplication app, Blackhole blackhole) {
+        blackhole.consume(app.registrationService.getEnrollmentPage(Enrollment.Status.PENDING, null, null, null, 50));
+        blackhole.consume(app.registrationService.getEnrollmentPage(Enrollment.Status.APPROVED, null, null, null, 50));
+        blackhole.consume(app.registrationService.getCourseOverviews());
+        blackhole.consume(app.registrationService.getEnrollmentCounts());
+    }
+
+    @Benchmark
+    public void studentDashboard(BenchmarkApplication app, Registration registration, Blackhole blackhole) {
+        blackhole.consume(app.registrationService.getStudentEnrollments(registration.studentId));
+        blackhole.consume(app.registrationService.getCourseOverviews());
+    }
+}
@@ -0,0 +1,95 @@
+package com.university.registration.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounds concurrent registrations; excess requests wait in FIFO order up to maxWait, or are turned away
+@Component
+public class AdmissionGate {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public AdmissionGate(@Value("${registration.admission.max-in-flight:10}") int maxInFlight,
+                         @Value("${registration.admission.max-queue:500}") int maxQueue,
+                         @Value("${registration.admission.max-wait:2s}") Duration maxWait,
+                         MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+
+        Gauge.builder("registration.admission.queue.depth", waiting, AtomicInteger::get)
+                .description("Registration requests waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("registration.admission.in.flight", permits, p -> maxInFlight - p.availablePermits())
+                .description("Registration requests currently admitted")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("registration.admission.wait")
+                .description("Time spent queued before admission")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueFull = Counter.builder("registration.admission.rejected").tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("registration.admission.rejected").tag("reason", "timeout")
+                .register(meterRegistry);
+    }
+
+    // Returns false when the request should be turned away; every true must be paired with exit()
+    public boolean tryEnter() throws InterruptedException {
+        // A timed tryAcquire honours fairness, unlike the barging tryAcquire()
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            waitTimer.record(Duration.ZERO);
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            queueFull.increment();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            boolean admitted = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            if (!admitted) {
+                timedOut.increment();
+            }
+            return admitted;
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+}
@@ -2,32 +2,45 @@ package com.university.registration.config;
 
 import com.university.registration.entity.*;
 import com.university.registration.repository.*;
+import com.university.registration.service.CourseCatalog;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 
+import static java.time.DayOfWeek.*;
+
+// The small demo seed; the "synthetic" profile uses SyntheticDataGenerator instead
+@Slf4j
 @Component
+@Profile("!synthetic")
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
+    private static final int DEFAULT_CAPACITY = 40;
+
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final InstructorRepository instructorRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CourseCatalog courseCatalog;
 
     @Override
     public void run(String... args) {
         if (userRepository.count() == 0) {
             initializeData();
-            System.out.println(">>> Initial database data loaded successfully! <<<");
+            log.info("Initial database data loaded");
         } else {
-             System.out.println(">>> Database already contains data. Skipping initialization. <<<");
+            log.info("Database already contains data; skipping initialization");
         }
     }
 
@@ -79,11 +92,29 @@ public class DataInitializer implements CommandLineRunner {
         mng302.setPrerequisites(new HashSet<>(Arrays.asList(mng301)));
         mng401.setPrerequisites(new HashSet<>(Arrays.asList(mng101, mth201)));
 
+        // Weekly meetings; none of the demo courses clash
+        meets(mth101, "08:00", "09:15", MONDAY, WEDNESDAY);
+        meets(mth102, "09:30", "10:45", MONDAY, WEDNESDAY);
+        meets(mth201, "11:00", "12:15", MONDAY, WEDNESDAY);
+        meets(mth301, "12:30", "13:45", MONDAY, WEDNESDAY);
+        meets(ece121, "14:00", "15:15", MONDAY, WEDNESDAY);
+        meets(ece221, "15:30", "16:45", MONDAY, WEDNESDAY);
+        meets(ece321, "17:00", "18:15", MONDAY, WEDNESDAY);
+        meets(ece322, "08:00", "09:15", TUESDAY, THURSDAY);
+        meets(ece421, "09:30", "10:45", TUESDAY, THURSDAY);
+        meets(ece422, "11:00", "12:15", TUESDAY, THURSDAY);
+        meets(mng101, "12:30", "13:45", TUESDAY, THURSDAY);
+        meets(mng201, "14:00", "15:15", TUESDAY, THURSDAY);
+        meets(mng301, "15:30", "16:45", TUESDAY, THURSDAY);
+        meets(mng302, "17:00", "18:15", TUESDAY, THURSDAY);
+        meets(mng401, "09:00", "11:45", FRIDAY);
+
         courseRepository.saveAll(List.of(
             mth101, mth102, mth201, mth301,
             ece121, ece221, ece321, ece322, ece421, ece422,
             mng101, mng201, mng301, mng302, mng401
         ));
+        courseCatalog.invalidate();
 
         Student student1 = new Student(null, "Ali Khaled", Student.Major.COMPUTER_ENGINEERING, new HashSet<>());
         Student student2 = new Student(null, "Nour Mahmoud", Student.Major.MECHANICAL_ENGINEERING, new HashSet<>());
@@ -104,9 +135,16 @@ private Course createCourse(String code, String name, Instructor instructor) {
         Course course = new Course();
         course.setCode(code);
         course.setName(name);
+        course.setCapacity(DEFAULT_CAPACITY);
         course.setInstructors(new HashSet<>(Arrays.asList(instructor)));
         course.setPrerequisites(new HashSet<>());
         course.setEnrollments(new HashSet<>());
         return course;
     }
+
+    private static void meets(Course course, String start, String end, DayOfWeek... days) {
+        for (DayOfWeek day : days) {
+            course.getMeetings().add(new Meeting(day, LocalTime.parse(start), LocalTime.parse(end)));
+        }
+    }
 }
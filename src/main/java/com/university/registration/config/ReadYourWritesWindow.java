@@ -0,0 +1,80 @@
+package com.university.registration.config;
+
+import com.university.registration.service.EnrollmentChangedEvent;
+import com.university.registration.service.RegistrationUserDetails;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Users who just committed a write, and students whose enrollments were just changed by someone else,
+// read from the primary for a while so a replica that has not caught up cannot hide the change from them
+public class ReadYourWritesWindow {
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Long> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> students = new ConcurrentHashMap<>();
+
+    public ReadYourWritesWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    // Called when a read-write transaction takes a primary connection; the user is marked once it commits
+    void writing() {
+        if (windowNanos <= 0
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return;
+        }
+        String username = authentication.getName();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.put(username, System.nanoTime() + windowNanos);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (windowNanos > 0) {
+            students.put(event.studentId(), System.nanoTime() + windowNanos);
+        }
+    }
+
+    // Whether the current user has to read from the primary
+    boolean isActive() {
+        if (users.isEmpty() && students.isEmpty()) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (isOpen(users.get(authentication.getName()), now)) {
+            return true;
+        }
+        return authentication.getPrincipal() instanceof RegistrationUserDetails user
+                && user.getStudentId() != null
+                && isOpen(students.get(user.getStudentId()), now);
+    }
+
+    void expire() {
+        long now = System.nanoTime();
+        users.values().removeIf(deadline -> !isOpen(deadline, now));
+        students.values().removeIf(deadline -> !isOpen(deadline, now));
+    }
+
+    private static boolean isOpen(Long deadline, long now) {
+        return deadline != null && deadline - now > 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.registration.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Puts the registration endpoints behind the AdmissionGate; runs after Spring Security
+@Component
+@RequiredArgsConstructor
+public class RegistrationAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> GUARDED_PATHS = Set.of("/student/register", "/admin/registrations/bulk");
+
+    private final AdmissionGate admissionGate;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !GUARDED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = admissionGate.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, admissionGate.getMaxWait().toSeconds())));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Registration is busy right now, please try again in a few seconds.");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admissionGate.exit();
+        }
+    }
+}
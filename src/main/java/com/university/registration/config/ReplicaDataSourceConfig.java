@@ -0,0 +1,99 @@
+package com.university.registration.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// With registration.datasource.replica.enabled=true, @Transactional(readOnly = true) work goes to the replicas and
+// everything else to spring.datasource; without it Boot's single datasource is used unchanged
+@Configuration
+@ConditionalOnProperty(name = "registration.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow(
+            @Value("${registration.datasource.replica.read-your-writes:5s}") Duration window) {
+        return new ReadYourWritesWindow(window);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ReadYourWritesWindow readYourWritesWindow,
+            MeterRegistry meterRegistry,
+            @Value("${registration.datasource.replica.urls}") List<String> urls,
+            @Value("${registration.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${registration.datasource.replica.password:${spring.datasource.password}}") String password) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            // Replicas that are down must not stop the application from starting
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesWindow);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReadYourWritesWindow readYourWritesWindow,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${registration.datasource.replica.max-lag:2s}") Duration maxLag) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource, readYourWritesWindow, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource,
+                                 ReadYourWritesWindow readYourWritesWindow) {
+        return routingProxy(primaryDataSource, replicaRoutingDataSource, readYourWritesWindow);
+    }
+
+    // The physical connection is only taken at the first statement, once the transaction has marked it read-only
+    static LazyConnectionDataSourceProxy routingProxy(DataSource primary, ReplicaRoutingDataSource replicas,
+                                                      ReadYourWritesWindow readYourWrites) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                readYourWrites.writing();
+                return super.getConnection();
+            }
+        });
+        proxy.setReadOnlyDataSource(replicas);
+        return proxy;
+    }
+}
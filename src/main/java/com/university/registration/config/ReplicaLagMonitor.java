@@ -0,0 +1,95 @@
+package com.university.registration.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes a heartbeat to the primary and reads it back from every replica; a replica whose copy trails the
+// last heartbeat by more than max-lag (or cannot be read) gets no reads until it catches up.
+// Lag is measured in whole check intervals, so max-lag should be at least one interval.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final ReplicaRoutingDataSource router;
+    private final ReadYourWritesWindow readYourWrites;
+    private final long maxLagMillis;
+    // Last measured lag per replica in ms, -1 when unknown
+    private final Map<String, AtomicLong> lag = new HashMap<>();
+    private long lastBeat = -1;
+
+    public ReplicaLagMonitor(DataSource primary, ReplicaRoutingDataSource router, ReadYourWritesWindow readYourWrites,
+                             Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.router = router;
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLag.toMillis();
+
+        router.getReplicas().forEach((name, replica) -> {
+            replicas.put(name, new JdbcTemplate(replica));
+            AtomicLong value = new AtomicLong(-1);
+            lag.put(name, value);
+            Gauge.builder("registration.datasource.replica.lag", value, v -> v.get() < 0 ? Double.NaN : v.get())
+                    .description("How far the replica trails the primary's heartbeat")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        Gauge.builder("registration.datasource.replicas.available", router, r -> r.getAvailableReplicas().size())
+                .description("Replicas currently receiving read-only traffic")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${registration.datasource.replica.check-interval-ms:1000}")
+    public synchronized void check() {
+        List<String> available = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            long behind = lagOf(name, replica);
+            lag.get(name).set(behind);
+            if (behind >= 0 && behind <= maxLagMillis) {
+                available.add(name);
+            }
+        });
+        if (!available.equals(router.getAvailableReplicas())) {
+            log.info("Read-only traffic now goes to {}", available.isEmpty() ? "the primary only" : available);
+        }
+        router.setAvailableReplicas(available);
+        readYourWrites.expire();
+        beat();
+    }
+
+    // How far the replica's heartbeat trails the last one written, or -1 when that is unknown
+    private long lagOf(String name, JdbcTemplate replica) {
+        if (lastBeat < 0) {
+            return -1;
+        }
+        try {
+            List<Long> beats = replica.queryForList("select beat_at from replica_heartbeat where id = 1", Long.class);
+            return beats.isEmpty() ? -1 : Math.max(0, lastBeat - beats.get(0));
+        } catch (DataAccessException e) {
+            log.debug("Could not read the heartbeat from replica {}", name, e);
+            return -1;
+        }
+    }
+
+    private void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+                primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+            }
+            lastBeat = now;
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replica heartbeat", e);
+        }
+    }
+}
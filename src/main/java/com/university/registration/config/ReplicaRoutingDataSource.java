@@ -0,0 +1,77 @@
+package com.university.registration.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Target of read-only connections: round robin over the replicas ReplicaLagMonitor reports as caught up,
+// falling back to the primary when none is, or when the caller has to see their own writes
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWritesWindow readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> available = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWritesWindow readYourWrites) {
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    // For reads that seed long-lived caches (catalog, prerequisites, seat counters), which would otherwise
+    // keep whatever a lagging replica returned. A no-op when no replicas are configured.
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    List<String> getAvailableReplicas() {
+        return available;
+    }
+
+    void setAvailableReplicas(List<String> names) {
+        available = List.copyOf(names);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = available;
+        if (candidates.isEmpty() || PRIMARY_ONLY.get() != null || readYourWrites.isActive()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // The replica pools belong to this router; the primary is its own bean
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.university.registration.config;
 
 import org.springframework.security.core.userdetails.UserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.Customizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
+import java.time.Duration;
+import java.util.UUID;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -22,8 +29,34 @@ public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
 
+    // Metrics scrapers hitting /actuator/** send Basic credentials on every request and keep no session
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .userDetailsService(userDetailsService);
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${registration.security.remember-me.key:}") String rememberMeKey,
+                                           @Value("${registration.security.remember-me.validity:2h}") Duration rememberMeValidity,
+                                           @Value("${registration.cluster.enabled:false}") boolean clusterEnabled)
+            throws Exception {
+        // A random key per instance would reject every cookie another instance signed
+        if (clusterEnabled && rememberMeKey.isBlank()) {
+            throw new IllegalStateException(
+                    "registration.security.remember-me.key must be set when registration.cluster.enabled is true");
+        }
         http
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/login", "/css/**", "/js/**").permitAll()
@@ -36,6 +69,15 @@ public class SecurityConfig {
                 .defaultSuccessUrl("/home", true)
                 .permitAll()
             )
+            // Signed, expiring cookie: a returning browser whose session is gone signs in again without a hash.
+            // The signature covers the password hash, so a password change (or rehash) invalidates it.
+            .rememberMe(rememberMe -> rememberMe
+                // Random per start unless configured; required in cluster mode
+                .key(rememberMeKey.isBlank() ? UUID.randomUUID().toString() : rememberMeKey)
+                .tokenValiditySeconds((int) rememberMeValidity.toSeconds())
+                .alwaysRemember(true)
+                .userDetailsService(userDetailsService)
+            )
             .logout(logout -> logout
                 .logoutSuccessUrl("/login?logout")
                 .permitAll()
@@ -49,8 +91,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${registration.security.bcrypt-strength:10}") int strength,
+                                           @Value("${registration.security.hashing.threads:0}") int threads,
+                                           @Value("${registration.security.hashing.queue-capacity:1000}") int queueCapacity,
+                                           @Value("${registration.security.hashing.max-wait:5s}") Duration maxWait,
+                                           MeterRegistry meterRegistry) {
+        int hashingThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(strength, hashingThreads, queueCapacity, maxWait, meterRegistry);
     }
 
     @Bean
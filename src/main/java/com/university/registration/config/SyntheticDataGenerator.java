@@ -0,0 +1,252 @@
+package com.university.registration.config;
+
+import com.university.registration.service.CourseCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+// University-scale seed for capacity testing, used instead of DataInitializer under the "synthetic" profile.
+// Everything is derived from the seed, so two runs with the same settings produce the same database.
+@Slf4j
+@Component
+@Profile("synthetic")
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    static final long FIRST_STUDENT_ID = 250001;
+    static final String STUDENT_PASSWORD = "password";
+
+    private static final String[] DEPARTMENTS = {"MTH", "ECE", "MNG"};
+    private static final int LEVELS = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CourseCatalog courseCatalog;
+
+    @Value("${registration.synthetic.seed:42}")
+    private long seed;
+
+    @Value("${registration.synthetic.students:200000}")
+    private int students;
+
+    @Value("${registration.synthetic.courses:2000}")
+    private int courses;
+
+    @Value("${registration.synthetic.enrollments-per-student:10}")
+    private int enrollmentsPerStudent;
+
+    // Students who also get a login (student<n> / "password"); one bcrypt hash is shared by all of them
+    @Value("${registration.synthetic.users:1000}")
+    private int users;
+
+    @Value("${registration.synthetic.batch-size:5000}")
+    private int batchSize;
+
+    private record GeneratedCourse(int index, String code, int department, int level, int[] prerequisites) {
+    }
+
+    @Override
+    public void run(String... args) {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already contains data; skipping synthetic generation");
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<GeneratedCourse> catalog = generateCourses(new Random(seed));
+        long enrollments = generateStudents(catalog);
+        generateUsers();
+        advanceSequences(enrollments);
+        courseCatalog.invalidate();
+
+        log.info("Generated {} courses, {} students and {} enrollments in {} ms (seed {})",
+                catalog.size(), students, enrollments, (System.nanoTime() - start) / 1_000_000, seed);
+    }
+
+    // MTH courses build on MTH only; ECE and MNG on their own department or MTH. Prerequisites always
+    // come from a lower level, so the graph is acyclic and every course is reachable by its major.
+    private List<GeneratedCourse> generateCourses(Random random) {
+        int instructorCount = Math.max(4, courses / 20);
+        List<Object[]> instructorRows = new ArrayList<>();
+        for (int i = 0; i < instructorCount; i++) {
+            instructorRows.add(new Object[]{"Dr. Synthetic " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into instructors (name) values (?)", instructorRows);
+        List<Long> instructorIds = jdbcTemplate.queryForList("select id from instructors order by id", Long.class);
+
+        List<GeneratedCourse> catalog = new ArrayList<>(courses);
+        List<List<GeneratedCourse>> byDepartmentBelow = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS.length; d++) {
+            byDepartmentBelow.add(new ArrayList<>());
+        }
+        int[][] numbers = new int[DEPARTMENTS.length][LEVELS + 1];
+
+        for (int level = 1; level <= LEVELS; level++) {
+            List<GeneratedCourse> levelCourses = new ArrayList<>();
+            int perLevel = courses / LEVELS + (level <= courses % LEVELS ? 1 : 0);
+            for (int i = 0; i < perLevel; i++) {
+                int department = random.nextInt(10) < 3 ? 0 : 1 + random.nextInt(2);
+                String code = String.format("%s%d%03d", DEPARTMENTS[department], level, ++numbers[department][level]);
+
+                List<GeneratedCourse> pool = new ArrayList<>(byDepartmentBelow.get(0));
+                if (department != 0) {
+                    pool.addAll(byDepartmentBelow.get(department));
+                }
+                int[] prerequisites = new int[0];
+                if (!pool.isEmpty()) {
+                    prerequisites = random.ints(1 + random.nextInt(3), 0, pool.size())
+                            .distinct()
+                            .map(p -> pool.get(p).index())
+                            .toArray();
+                }
+                GeneratedCourse course = new GeneratedCourse(catalog.size(), code, department, level, prerequisites);
+                catalog.add(course);
+                levelCourses.add(course);
+            }
+            levelCourses.forEach(c -> byDepartmentBelow.get(c.department()).add(c));
+        }
+
+        List<Object[]> courseRows = new ArrayList<>();
+        List<Object[]> prerequisiteRows = new ArrayList<>();
+        List<Object[]> teachingRows = new ArrayList<>();
+        List<Object[]> meetingRows = new ArrayList<>();
+        // Drawn separately, so the rest of the data set does not change with the timetable
+        Random timetable = new Random(seed ^ 0x5DEECE66DL);
+        for (GeneratedCourse course : catalog) {
+            courseRows.add(new Object[]{course.code(), "Synthetic " + DEPARTMENTS[course.department()] + " " + course.index(),
+                    40 + random.nextInt(261)});
+            for (int prerequisite : course.prerequisites()) {
+                prerequisiteRows.add(new Object[]{course.code(), catalog.get(prerequisite).code()});
+            }
+            teachingRows.add(new Object[]{course.code(), instructorIds.get(random.nextInt(instructorIds.size()))});
+            // Two 75-minute meetings a week, Monday/Wednesday or Tuesday/Thursday, in one of eight blocks
+            int days = timetable.nextInt(2);
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(90L * timetable.nextInt(8));
+            for (int day : new int[]{days, days + 2}) {
+                meetingRows.add(new Object[]{course.code(), DayOfWeek.of(day + 1).name(),
+                        Time.valueOf(start), Time.valueOf(start.plusMinutes(75))});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into courses (code, name, capacity) values (?, ?, ?)", courseRows);
+        jdbcTemplate.batchUpdate("insert into course_prerequisites (course_code, prerequisite_code) values (?, ?)", prerequisiteRows);
+        jdbcTemplate.batchUpdate("insert into course_instructors (course_code, instructor_id) values (?, ?)", teachingRows);
+        jdbcTemplate.batchUpdate("insert into course_meetings (course_code, day_of_week, start_time, end_time) "
+                + "values (?, ?, ?, ?)", meetingRows);
+        return catalog;
+    }
+
+    // Each student works through the levels up to their year: earlier levels are graded, the current one is
+    // still open. A course is only taken once all of its prerequisites were passed.
+    private long generateStudents(List<GeneratedCourse> catalog) {
+        // Courses each major may take, per level
+        List<List<List<GeneratedCourse>>> eligible = new ArrayList<>();
+        for (int major = 0; major < 2; major++) {
+            List<List<GeneratedCourse>> levels = new ArrayList<>();
+            for (int level = 0; level <= LEVELS; level++) {
+                levels.add(new ArrayList<>());
+            }
+            for (GeneratedCourse course : catalog) {
+                if (course.department() == 0 || course.department() == major + 1) {
+                    levels.get(course.level()).add(course);
+                }
+            }
+            eligible.add(levels);
+        }
+
+        List<Object[]> studentRows = new ArrayList<>(batchSize);
+        List<Object[]> enrollmentRows = new ArrayList<>(batchSize);
+        long enrollmentId = 0;
+        for (int s = 0; s < students; s++) {
+            Random random = new Random(seed * 1_000_003 + s);
+            int major = random.nextInt(2);
+            int year = 1 + random.nextInt(LEVELS);
+            long studentId = FIRST_STUDENT_ID + s;
+            studentRows.add(new Object[]{studentId, "Student " + s,
+                    major == 0 ? "COMPUTER_ENGINEERING" : "MECHANICAL_ENGINEERING"});
+
+            BitSet taken = new BitSet(catalog.size());
+            BitSet passed = new BitSet(catalog.size());
+            int remaining = enrollmentsPerStudent;
+            for (int level = 1; level <= year && remaining > 0; level++) {
+                List<GeneratedCourse> options = eligible.get(major).get(level);
+                int quota = level == year ? remaining : Math.max(1, remaining / (year - level + 1));
+                for (int attempt = 0; attempt < quota * 4 && quota > 0 && !options.isEmpty(); attempt++) {
+                    GeneratedCourse course = options.get(random.nextInt(options.size()));
+                    if (taken.get(course.index()) || !Arrays.stream(course.prerequisites()).allMatch(passed::get)) {
+                        continue;
+                    }
+                    taken.set(course.index());
+                    quota--;
+                    remaining--;
+
+                    if (level < year) {
+                        double grade = Math.max(0, Math.min(100, Math.round((72 + random.nextGaussian() * 14) * 100) / 100.0));
+                        boolean pass = grade >= 50;
+                        if (pass) {
+                            passed.set(course.index());
+                        }
+                        enrollmentRows.add(new Object[]{++enrollmentId, studentId, course.code(), "APPROVED", grade, pass});
+                    } else {
+                        String status = random.nextInt(4) == 0 ? "PENDING" : "APPROVED";
+                        enrollmentRows.add(new Object[]{++enrollmentId, studentId, course.code(), status, null, false});
+                    }
+                }
+            }
+
+            if (enrollmentRows.size() >= batchSize || studentRows.size() >= batchSize) {
+                flush(studentRows, enrollmentRows);
+            }
+            if ((s + 1) % 50_000 == 0) {
+                log.info("Generated {} of {} students", s + 1, students);
+            }
+        }
+        flush(studentRows, enrollmentRows);
+        return enrollmentId;
+    }
+
+    private void flush(List<Object[]> studentRows, List<Object[]> enrollmentRows) {
+        jdbcTemplate.batchUpdate("insert into students (id, name, major) values (?, ?, ?)", studentRows);
+        jdbcTemplate.batchUpdate("insert into enrollments (id, student_id, course_code, status, grade, passed, version) "
+                + "values (?, ?, ?, ?, ?, ?, 0)", enrollmentRows);
+        studentRows.clear();
+        enrollmentRows.clear();
+    }
+
+    private void generateUsers() {
+        String studentHash = passwordEncoder.encode(STUDENT_PASSWORD);
+        List<Object[]> userRows = new ArrayList<>();
+        userRows.add(new Object[]{"admin", passwordEncoder.encode("admin123"), "ADMIN", null});
+        for (int s = 0; s < Math.min(users, students); s++) {
+            userRows.add(new Object[]{"student" + s, studentHash, "STUDENT", FIRST_STUDENT_ID + s});
+        }
+        jdbcTemplate.batchUpdate("insert into users (username, password, role, student_id) values (?, ?, ?, ?)", userRows);
+    }
+
+    // Ids above were assigned here, so the JPA sequences have to start past them
+    private void advanceSequences(long lastEnrollmentId) {
+        long nextStudent = FIRST_STUDENT_ID + students;
+        // Pooled optimizer: leave a full allocation block of headroom
+        long nextEnrollment = lastEnrollmentId + 100;
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if ("MySQL".equalsIgnoreCase(database)) {
+            // Hibernate emulates sequences on MySQL with single-row tables
+            jdbcTemplate.update("update student_sequence set next_val = ?", nextStudent);
+            jdbcTemplate.update("update enrollment_sequence set next_val = ?", nextEnrollment);
+        } else {
+            jdbcTemplate.execute("alter sequence student_sequence restart with " + nextStudent);
+            jdbcTemplate.execute("alter sequence enrollment_sequence restart with " + nextEnrollment);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.university.registration.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Startup sanity checks for the virtual-thread mode, plus a JFR watch for carrier pinning
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VirtualThreadDiagnostics implements DisposableBean {
+
+    private final AdmissionGate admissionGate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${registration.virtual-threads.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    private RecordingStream pinnedEvents;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkConfiguration() {
+        if (!virtualThreads) {
+            log.info("Request handling runs on platform threads (spring.threads.virtual.enabled=false)");
+            return;
+        }
+
+        // Tomcat no longer caps concurrency, so the pool and the admission gate are the only limits left
+        log.info("Request handling runs on virtual threads; connection pool size {}, admission limit {}",
+                poolSize, admissionGate.getMaxInFlight());
+        if (admissionGate.getMaxInFlight() > poolSize) {
+            log.warn("registration.admission.max-in-flight ({}) exceeds the connection pool size ({}): "
+                    + "admitted registrations will queue inside Hikari instead of the admission gate",
+                    admissionGate.getMaxInFlight(), poolSize);
+        }
+
+        watchPinnedThreads();
+    }
+
+    private void watchPinnedThreads() {
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+
+        pinnedEvents = new RecordingStream();
+        pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        pinnedEvents.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.increment();
+            String frames = event.getStackTrace() == null ? "<no stack>" : event.getStackTrace().getFrames().stream()
+                    .limit(8)
+                    .map(RecordedFrame::getMethod)
+                    .map(m -> m.getType().getName() + "." + m.getName())
+                    .collect(Collectors.joining(" <- "));
+            log.warn("Virtual thread pinned for {} ms (synchronized block or native frame): {}",
+                    event.getDuration().toMillis(), frames);
+        });
+        pinnedEvents.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", pinnedThreshold.toMillis());
+    }
+
+    @Override
+    public void destroy() {
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+        }
+    }
+}
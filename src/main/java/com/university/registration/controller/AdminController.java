@@ -1,56 +1,186 @@
 package com.university.registration.controller;
 
+import com.university.registration.dto.BatchOperationSummary;
+import com.university.registration.dto.CatalogStats;
+import com.university.registration.dto.EnrollmentPage;
+import com.university.registration.dto.EnrollmentState;
 import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.exception.EnrollmentStateConflictException;
+import com.university.registration.service.CourseCatalog;
 import com.university.registration.service.CourseRegistrationService;
+import com.university.registration.service.DashboardEvents;
+import com.university.registration.service.EnrollmentBatchService;
+import com.university.registration.service.StudentSummaryService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+@Slf4j
 @Controller
 @RequestMapping("/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final CourseRegistrationService registrationService;
+    private final CourseCatalog courseCatalog;
+    private final EnrollmentBatchService batchService;
+    private final StudentSummaryService summaryService;
+    private final DashboardEvents dashboardEvents;
 
     @GetMapping("/dashboard")
-    public String dashboard(Model model) {
-        List<Enrollment> pendingEnrollments = registrationService.getPendingEnrollments();
-        List<Enrollment> approvedEnrollments = registrationService.getApprovedEnrollments();
-        
-        System.out.println("=== ADMIN DASHBOARD ===");
-        System.out.println("Pending: " + pendingEnrollments.size());
-        System.out.println("Approved: " + approvedEnrollments.size());
-        
-        model.addAttribute("pendingEnrollments", pendingEnrollments);
-        model.addAttribute("approvedEnrollments", approvedEnrollments);
-        model.addAttribute("courses", registrationService.getAllCourses());
+    public String dashboard(@RequestParam(required = false) String course,
+                            @RequestParam(required = false) Student.Major major,
+                            @RequestParam(required = false) Enrollment.Status status,
+                            @RequestParam(required = false) Long pendingAfter,
+                            @RequestParam(required = false) Long approvedAfter,
+                            @RequestParam(defaultValue = "50") int size,
+                            Model model) {
+        String courseCode = course == null || course.isBlank() ? null : course;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        EnrollmentPage pendingPage = status == null || status == Enrollment.Status.PENDING
+                ? registrationService.getEnrollmentPage(Enrollment.Status.PENDING, courseCode, major, pendingAfter, pageSize)
+                : null;
+        EnrollmentPage approvedPage = status == null || status == Enrollment.Status.APPROVED
+                ? registrationService.getEnrollmentPage(Enrollment.Status.APPROVED, courseCode, major, approvedAfter, pageSize)
+                : null;
+
+        log.debug("Admin dashboard: {} pending, {} approved on this page",
+                pendingPage == null ? 0 : pendingPage.items().size(),
+                approvedPage == null ? 0 : approvedPage.items().size());
+
+        model.addAttribute("pendingPage", pendingPage);
+        model.addAttribute("approvedPage", approvedPage);
+        model.addAttribute("pendingAfter", pendingAfter);
+        model.addAttribute("approvedAfter", approvedAfter);
+        model.addAttribute("course", courseCode);
+        model.addAttribute("major", major);
+        model.addAttribute("status", status);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("majors", Student.Major.values());
+        model.addAttribute("courses", registrationService.getCourseOverviews());
+        model.addAttribute("enrollmentCounts", registrationService.getEnrollmentCounts());
         return "admin-dashboard";
     }
 
+    // version is the one the dashboard rendered; another admin acting on the same row first makes it a conflict
     @PostMapping("/approve/{id}")
-    public String approveEnrollment(@PathVariable Long id) {
-        System.out.println("Approving enrollment ID: " + id);
-        Enrollment enrolled = registrationService.approveEnrollment(id);
-        System.out.println("Enrollment status after approval: " + enrolled.getStatus());
+    public String approveEnrollment(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        try {
+            EnrollmentState enrolled = registrationService.approveEnrollment(id, version);
+            log.debug("Enrollment {} is now {}", id, enrolled.status());
+        } catch (EnrollmentStateConflictException | OptimisticLockingFailureException e) {
+            return "redirect:/admin/dashboard?conflict";
+        }
         return "redirect:/admin/dashboard?approved";
     }
 
     @PostMapping("/reject/{id}")
-    public String rejectEnrollment(@PathVariable Long id) {
-        registrationService.rejectEnrollment(id);
+    public String rejectEnrollment(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        try {
+            registrationService.rejectEnrollment(id, version);
+        } catch (EnrollmentStateConflictException | OptimisticLockingFailureException e) {
+            return "redirect:/admin/dashboard?conflict";
+        }
         return "redirect:/admin/dashboard?rejected";
     }
 
     @PostMapping("/grade/{id}")
     public String setGrade(@PathVariable Long id, 
                           @RequestParam Double grade,
-                          @RequestParam Boolean passed) {
-        System.out.println("Grading enrollment ID: " + id + ", Grade: " + grade + ", Passed: " + passed);
-        registrationService.setGrade(id, grade, passed);
+                          @RequestParam Boolean passed,
+                          @RequestParam(required = false) Long version) {
+        log.debug("Grading enrollment {}: grade {}, passed {}", id, grade, passed);
+        try {
+            registrationService.setGrade(id, grade, passed, version);
+        } catch (EnrollmentStateConflictException | OptimisticLockingFailureException e) {
+            return "redirect:/admin/dashboard?conflict";
+        }
         return "redirect:/admin/dashboard?graded";
     }
-}
\ No newline at end of file
+
+    @PostMapping("/enrollments/approve")
+    public String approveSelected(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                  RedirectAttributes redirect) {
+        return batchResult(batchService.approve(ids == null ? List.of() : ids), redirect);
+    }
+
+    @PostMapping("/enrollments/reject")
+    public String rejectSelected(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                 RedirectAttributes redirect) {
+        return batchResult(batchService.reject(ids == null ? List.of() : ids), redirect);
+    }
+
+    @PostMapping("/enrollments/approve-matching")
+    public String approveMatching(@RequestParam(required = false) String course,
+                                  @RequestParam(required = false) Student.Major major,
+                                  RedirectAttributes redirect) {
+        return batchResult(batchService.approveMatching(blankToNull(course), major), redirect);
+    }
+
+    @PostMapping("/enrollments/reject-matching")
+    public String rejectMatching(@RequestParam(required = false) String course,
+                                 @RequestParam(required = false) Student.Major major,
+                                 RedirectAttributes redirect) {
+        return batchResult(batchService.rejectMatching(blankToNull(course), major), redirect);
+    }
+
+    // CSV of "studentId,grade,passed" for one course
+    @PostMapping("/grades/import")
+    public String importGrades(@RequestParam String course,
+                               @RequestParam("file") MultipartFile file,
+                               RedirectAttributes redirect) throws IOException {
+        return batchResult(batchService.importGrades(course,
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)), redirect);
+    }
+
+    private static String batchResult(BatchOperationSummary summary, RedirectAttributes redirect) {
+        redirect.addFlashAttribute("batchSummary", summary);
+        return "redirect:/admin/dashboard";
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    // After enrollments were changed outside the application
+    @PostMapping("/summaries/rebuild")
+    public String rebuildSummaries(RedirectAttributes redirect) {
+        return batchResult(summaryService.rebuildAll(), redirect);
+    }
+
+    // Live enrollment changes for the dashboard, so it does not have to be reloaded
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter events() {
+        return dashboardEvents.subscribeAdmin();
+    }
+
+    @GetMapping("/catalog/stats")
+    @ResponseBody
+    public CatalogStats catalogStats() {
+        return courseCatalog.getStats();
+    }
+
+    // For course edits made outside the application, e.g. directly in the database
+    @PostMapping("/catalog/invalidate")
+    public String invalidateCatalog() {
+        courseCatalog.invalidate();
+        return "redirect:/admin/dashboard";
+    }
+}
@@ -0,0 +1,39 @@
+package com.university.registration.controller;
+
+import com.university.registration.dto.BulkRegistrationReport;
+import com.university.registration.dto.RegistrationRequest;
+import com.university.registration.service.BulkRegistrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/registrations")
+@RequiredArgsConstructor
+public class BulkRegistrationController {
+
+    private final BulkRegistrationService bulkRegistrationService;
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkRegistrationReport registerAll(@RequestBody List<RegistrationRequest> requests) {
+        return bulkRegistrationService.registerAll(requests);
+    }
+
+    // The CSV body is read line by line as it arrives rather than buffered whole
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkRegistrationReport registerCsv(Reader body) {
+        return bulkRegistrationService.registerCsv(body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public BulkRegistrationReport registerCsvUpload(@RequestParam("file") MultipartFile file) throws IOException {
+        return bulkRegistrationService.registerCsv(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+package com.university.registration.controller;
+
+import com.university.registration.entity.EligibilityRule;
+import com.university.registration.service.EligibilityRules;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Maintains the major x course eligibility table; every change is live once it commits
+@RestController
+@RequestMapping("/admin/eligibility-rules")
+@RequiredArgsConstructor
+public class EligibilityRuleController {
+
+    private final EligibilityRules eligibilityRules;
+
+    @GetMapping
+    public List<EligibilityRule> rules() {
+        return eligibilityRules.getRules();
+    }
+
+    @PostMapping
+    public ResponseEntity<EligibilityRule> addRule(@RequestBody EligibilityRule rule) {
+        if (rule.getScope() == null || rule.getEffect() == null || rule.getTarget() == null || rule.getTarget().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eligibilityRules.addRule(rule));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removeRule(@PathVariable Long id) {
+        eligibilityRules.removeRule(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // For rule edits made outside the application, e.g. directly in the database
+    @PostMapping("/reload")
+    public ResponseEntity<Void> reload() {
+        eligibilityRules.reloadAll();
+        return ResponseEntity.noContent().build();
+    }
+}
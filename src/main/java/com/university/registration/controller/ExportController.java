@@ -0,0 +1,66 @@
+package com.university.registration.controller;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.service.EnrollmentExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+// Registrar exports, streamed while the query is still being read; gzip comes from server.compression
+@RestController
+@RequestMapping("/admin/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final EnrollmentExportService exportService;
+
+    @GetMapping("/enrollments.csv")
+    public ResponseEntity<StreamingResponseBody> enrollmentsCsv(@RequestParam(required = false) String course,
+                                                                @RequestParam(required = false) Student.Major major,
+                                                                @RequestParam(required = false) Enrollment.Status status) {
+        String courseCode = blankToNull(course);
+        return download("enrollments.csv", TEXT_CSV, out -> exportService.writeCsv(status, courseCode, major, out));
+    }
+
+    @GetMapping("/enrollments.json")
+    public ResponseEntity<StreamingResponseBody> enrollmentsJson(@RequestParam(required = false) String course,
+                                                                 @RequestParam(required = false) Student.Major major,
+                                                                 @RequestParam(required = false) Enrollment.Status status) {
+        String courseCode = blankToNull(course);
+        return download("enrollments.json", MediaType.APPLICATION_JSON,
+                out -> exportService.writeJson(status, courseCode, major, out));
+    }
+
+    // Re-importable through /admin/grades/import once the grades are filled in
+    @GetMapping("/grades/{course}.csv")
+    public ResponseEntity<StreamingResponseBody> gradeSheet(@PathVariable String course) {
+        return download("grades-" + course + ".csv", TEXT_CSV, out -> exportService.writeGradeSheet(course, out));
+    }
+
+    // Students whose pending and approved courses this term meet at the same time
+    @GetMapping("/schedule-conflicts.csv")
+    public ResponseEntity<StreamingResponseBody> scheduleConflicts() {
+        return download("schedule-conflicts.csv", TEXT_CSV, exportService::writeScheduleConflicts);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String filename, MediaType type,
+                                                                  StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -1,42 +1,125 @@
 package com.university.registration.controller;
 
-import com.university.registration.entity.User;
-import com.university.registration.repository.UserRepository;
+import com.university.registration.dto.CourseSearchResult;
+import com.university.registration.dto.RegistrationTicket;
+import com.university.registration.dto.Transcript;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
 import com.university.registration.service.CourseRegistrationService;
+import com.university.registration.service.CourseSearch;
+import com.university.registration.service.DashboardEvents;
+import com.university.registration.service.RegistrationQueue;
+import com.university.registration.service.RegistrationUserDetails;
+import com.university.registration.service.StudentSummaryService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Controller
 @RequestMapping("/student")
 @RequiredArgsConstructor
 public class StudentController {
 
+    // Courses listed on the dashboard; the search box finds the rest
+    private static final int DASHBOARD_COURSES = 50;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final CourseRegistrationService registrationService;
-    private final UserRepository userRepository;
+    private final CourseSearch courseSearch;
+    private final StudentSummaryService summaryService;
+    private final RegistrationQueue registrationQueue;
+    private final DashboardEvents dashboardEvents;
 
     @GetMapping("/dashboard")
-    public String dashboard(Authentication authentication, Model model) {
-        User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
+    public String dashboard(@AuthenticationPrincipal RegistrationUserDetails user,
+                            @RequestParam(defaultValue = "") String q,
+                            @RequestParam(required = false) String department,
+                            @RequestParam(defaultValue = "false") boolean eligibleOnly,
+                            Model model) {
+        CourseSearchResult courses = courseSearch.search(q, department,
+                eligibleOnly ? user.getStudent().major() : null, DASHBOARD_COURSES);
         model.addAttribute("student", user.getStudent());
-        model.addAttribute("enrollments", registrationService.getStudentEnrollments(user.getStudent().getId()));
-        model.addAttribute("courses", registrationService.getAllCourses());
+        model.addAttribute("enrollments", registrationService.getStudentEnrollments(user.getStudentId()));
+        model.addAttribute("summary", summaryService.getSummary(user.getStudentId()));
+        model.addAttribute("courses", courses.courses());
+        model.addAttribute("courseSearch", courses);
+        model.addAttribute("courseLimit", DASHBOARD_COURSES);
+        model.addAttribute("q", q);
+        model.addAttribute("department", department);
+        model.addAttribute("eligibleOnly", eligibleOnly);
         return "student-dashboard";
     }
 
+    // Search-as-you-type for the dashboard's course table
+    @GetMapping("/courses/search")
+    @ResponseBody
+    public CourseSearchResult searchCourses(@RequestParam(defaultValue = "") String q,
+                                            @RequestParam(required = false) String department,
+                                            @RequestParam(required = false) Student.Major major,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        return courseSearch.search(q, department, major, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    @GetMapping("/transcript")
+    @ResponseBody
+    public Transcript transcript(@AuthenticationPrincipal RegistrationUserDetails user) {
+        return Transcript.of(user.getStudent(), summaryService.getSummary(user.getStudentId()));
+    }
+
+    // Live changes to the student's own enrollments
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter events(@AuthenticationPrincipal RegistrationUserDetails user) {
+        return dashboardEvents.subscribeStudent(user.getStudentId());
+    }
+
     @PostMapping("/register")
-    public String registerCourse(Authentication authentication, 
+    public String registerCourse(@AuthenticationPrincipal RegistrationUserDetails user,
                                 @RequestParam String courseCode,
-                                Model model) {
+                                RedirectAttributes redirect) {
         try {
-            User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
-            registrationService.registerCourse(user.getStudent().getId(), courseCode);
+            Enrollment enrollment = registrationService.registerCourse(user.getStudentId(), courseCode);
+            if (enrollment.getStatus() == Enrollment.Status.WAITLISTED) {
+                return "redirect:/student/dashboard?waitlisted";
+            }
             return "redirect:/student/dashboard?success";
         } catch (Exception e) {
-            model.addAttribute("error", e.getMessage());
-            return "redirect:/student/dashboard?error=" + e.getMessage();
+            // Flashed rather than put in the redirect URL
+            redirect.addFlashAttribute("error", e.getMessage());
+            return "redirect:/student/dashboard";
         }
     }
+
+    // Queued for the registration workers; the outcome is polled or awaited over SSE
+    @PostMapping("/registrations")
+    @ResponseBody
+    public ResponseEntity<RegistrationTicket> submitRegistration(@AuthenticationPrincipal RegistrationUserDetails user,
+                                                                 @RequestParam String courseCode) {
+        RegistrationTicket ticket = registrationQueue.submit(user.getStudentId(), user.getStudent().major(), courseCode);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                        .buildAndExpand(ticket.requestId()).toUri())
+                .body(ticket);
+    }
+
+    @GetMapping("/registrations/{requestId}")
+    @ResponseBody
+    public ResponseEntity<RegistrationTicket> registrationStatus(@AuthenticationPrincipal RegistrationUserDetails user,
+                                                                 @PathVariable String requestId) {
+        return ResponseEntity.of(registrationQueue.getTicket(user.getStudentId(), requestId));
+    }
+
+    @GetMapping(value = "/registrations/{requestId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> registrationEvents(@AuthenticationPrincipal RegistrationUserDetails user,
+                                                         @PathVariable String requestId) {
+        return ResponseEntity.of(registrationQueue.subscribe(user.getStudentId(), requestId));
+    }
 }
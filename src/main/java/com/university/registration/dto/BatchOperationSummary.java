@@ -0,0 +1,14 @@
+package com.university.registration.dto;
+
+import java.util.List;
+
+// Outcome of a bulk approve/reject/grade run; problems lists rows that could not be applied
+public record BatchOperationSummary(String operation,
+                                    int requested,
+                                    int updated,
+                                    List<String> problems) {
+
+    public int getSkipped() {
+        return requested - updated;
+    }
+}
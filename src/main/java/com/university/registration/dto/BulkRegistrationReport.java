@@ -0,0 +1,13 @@
+package com.university.registration.dto;
+
+import java.util.List;
+
+public record BulkRegistrationReport(int total, int accepted, int rejected, List<RegistrationResult> results) {
+
+    public static BulkRegistrationReport of(List<RegistrationResult> results) {
+        int accepted = (int) results.stream()
+                .filter(r -> r.outcome() == RegistrationResult.Outcome.ACCEPTED)
+                .count();
+        return new BulkRegistrationReport(results.size(), accepted, results.size() - accepted, results);
+    }
+}
@@ -0,0 +1,5 @@
+package com.university.registration.dto;
+
+public record CatalogStats(long hits, long misses, long loads, long invalidations, int size, int maxSize,
+                           boolean detailsCached) {
+}
@@ -0,0 +1,11 @@
+package com.university.registration.dto;
+
+import java.util.List;
+
+// A course found by CourseSearch; has the fields the course table renders
+public record CourseHit(String code,
+                        String name,
+                        String department,
+                        List<String> instructors,
+                        List<String> prerequisites) {
+}
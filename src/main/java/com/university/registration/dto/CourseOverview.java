@@ -0,0 +1,11 @@
+package com.university.registration.dto;
+
+import java.util.List;
+
+// Read-only view of a course for the dashboards, so templates never touch lazy associations
+public record CourseOverview(String code,
+                             String name,
+                             Integer capacity,
+                             List<String> instructors,
+                             List<String> prerequisites) {
+}
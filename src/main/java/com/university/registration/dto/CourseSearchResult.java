@@ -0,0 +1,15 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Student;
+
+import java.util.List;
+import java.util.Map;
+
+// total counts every match, courses only the best `limit` of them. Each facet is counted with every filter
+// applied except its own, so it shows what choosing another value would give.
+public record CourseSearchResult(String query,
+                                 int total,
+                                 List<CourseHit> courses,
+                                 Map<String, Integer> departments,
+                                 Map<Student.Major, Integer> majors) {
+}
@@ -0,0 +1,16 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+
+// One exported enrollment, read as a projection so streamed rows never enter the persistence context
+public record EnrollmentExportRow(Long enrollmentId,
+                                  Long studentId,
+                                  String studentName,
+                                  Student.Major major,
+                                  String courseCode,
+                                  String courseName,
+                                  Enrollment.Status status,
+                                  Double grade,
+                                  Boolean passed) {
+}
@@ -0,0 +1,13 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Enrollment;
+
+import java.util.List;
+
+// One keyset page of enrollments; nextCursor is the id to continue after, or null on the last page
+public record EnrollmentPage(List<Enrollment> items, Long nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
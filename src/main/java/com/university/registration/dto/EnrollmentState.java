@@ -0,0 +1,13 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Enrollment;
+
+// What the state transitions need to know about an enrollment, without loading the entity
+public record EnrollmentState(Long id,
+                              Long studentId,
+                              String courseCode,
+                              Enrollment.Status status,
+                              Double grade,
+                              Boolean passed,
+                              long version) {
+}
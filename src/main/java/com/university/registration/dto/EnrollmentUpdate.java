@@ -0,0 +1,18 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+
+// An enrollment's current state as pushed to live dashboards; version lets the pushed row's forms keep
+// their optimistic check
+public record EnrollmentUpdate(Long enrollmentId,
+                               Long studentId,
+                               String studentName,
+                               Student.Major major,
+                               String courseCode,
+                               String courseName,
+                               Enrollment.Status status,
+                               Double grade,
+                               Boolean passed,
+                               long version) {
+}
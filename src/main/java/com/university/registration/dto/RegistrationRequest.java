@@ -0,0 +1,4 @@
+package com.university.registration.dto;
+
+public record RegistrationRequest(Long studentId, String courseCode) {
+}
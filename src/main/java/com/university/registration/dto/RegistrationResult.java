@@ -0,0 +1,27 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Enrollment;
+
+public record RegistrationResult(int row,
+                                 Long studentId,
+                                 String courseCode,
+                                 Outcome outcome,
+                                 Long enrollmentId,
+                                 Enrollment.Status status,
+                                 String message) {
+
+    public enum Outcome {
+        ACCEPTED,
+        REJECTED
+    }
+
+    public static RegistrationResult accepted(int row, Long studentId, String courseCode, Long enrollmentId,
+                                              Enrollment.Status status) {
+        String message = status == Enrollment.Status.WAITLISTED ? "Course full, added to waitlist" : null;
+        return new RegistrationResult(row, studentId, courseCode, Outcome.ACCEPTED, enrollmentId, status, message);
+    }
+
+    public static RegistrationResult rejected(int row, Long studentId, String courseCode, String message) {
+        return new RegistrationResult(row, studentId, courseCode, Outcome.REJECTED, null, null, message);
+    }
+}
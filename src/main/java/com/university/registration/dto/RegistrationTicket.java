@@ -0,0 +1,33 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Enrollment;
+
+// Where a queued registration stands; final once the state is no longer QUEUED
+public record RegistrationTicket(String requestId,
+                                 String courseCode,
+                                 State state,
+                                 Long enrollmentId,
+                                 String message) {
+
+    public enum State {
+        QUEUED,
+        ACCEPTED,
+        WAITLISTED,
+        REJECTED
+    }
+
+    public static RegistrationTicket queued(String requestId, String courseCode) {
+        return new RegistrationTicket(requestId, courseCode, State.QUEUED, null, null);
+    }
+
+    public static RegistrationTicket of(String requestId, RegistrationResult result) {
+        State state = result.outcome() == RegistrationResult.Outcome.REJECTED ? State.REJECTED
+                : result.status() == Enrollment.Status.WAITLISTED ? State.WAITLISTED
+                : State.ACCEPTED;
+        return new RegistrationTicket(requestId, result.courseCode(), state, result.enrollmentId(), result.message());
+    }
+
+    public boolean isFinal() {
+        return state != State.QUEUED;
+    }
+}
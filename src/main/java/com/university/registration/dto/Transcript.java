@@ -0,0 +1,31 @@
+package com.university.registration.dto;
+
+import com.university.registration.entity.Student;
+import com.university.registration.entity.StudentSummary;
+import com.university.registration.service.RegistrationUserDetails;
+
+import java.util.List;
+
+// JSON view of a student's summary; gpa is null until something has been graded
+public record Transcript(Long studentId,
+                         String name,
+                         Student.Major major,
+                         List<String> passedCourses,
+                         int earnedCredits,
+                         int gradedCredits,
+                         Double gpa,
+                         int pendingRequests) {
+
+    public static Transcript of(RegistrationUserDetails.StudentProfile student, StudentSummary summary) {
+        return new Transcript(
+                student.id(),
+                student.name(),
+                student.major(),
+                summary.getPassedCourseCodes().stream().sorted().toList(),
+                summary.getEarnedCredits(),
+                summary.getGradedCredits(),
+                summary.getGpa(),
+                summary.getPendingRequests()
+        );
+    }
+}
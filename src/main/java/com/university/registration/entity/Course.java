@@ -6,6 +6,7 @@ import lombok.EqualsAndHashCode; // Import this
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.ToString; // Import this
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -15,8 +16,8 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(exclude = {"instructors", "prerequisites", "enrollments"})
-@ToString(exclude = {"instructors", "prerequisites", "enrollments"}) 
+@EqualsAndHashCode(exclude = {"instructors", "prerequisites", "enrollments", "meetings"})
+@ToString(exclude = {"instructors", "prerequisites", "enrollments", "meetings"}) 
 public class Course {
 
     @Id
@@ -26,11 +27,20 @@ public class Course {
     @Column(nullable = false)
     private String name;
 
+    // Maximum pending + approved enrollments; null means unlimited
+    private Integer capacity;
+
+    // Counted towards earned credits and weights the GPA
+    @ColumnDefault("3")
+    @Column(nullable = false)
+    private int credits = 3;
+
     @ManyToMany
     @JoinTable(
         name = "course_instructors",
         joinColumns = @JoinColumn(name = "course_code"),
-        inverseJoinColumns = @JoinColumn(name = "instructor_id")
+        inverseJoinColumns = @JoinColumn(name = "instructor_id"),
+        indexes = @Index(name = "idx_course_instructors_course", columnList = "course_code, instructor_id")
     )
     private Set<Instructor> instructors = new HashSet<>();
 
@@ -39,13 +49,19 @@ public class Course {
     @JoinTable(
         name = "course_prerequisites",
         joinColumns = @JoinColumn(name = "course_code"),
-        inverseJoinColumns = @JoinColumn(name = "prerequisite_code")
+        inverseJoinColumns = @JoinColumn(name = "prerequisite_code"),
+        indexes = @Index(name = "idx_course_prerequisites_prerequisite", columnList = "prerequisite_code, course_code")
     )
     private Set<Course> prerequisites = new HashSet<>();
 
     @OneToMany(mappedBy = "course")
     private Set<Enrollment> enrollments = new HashSet<>();
 
+    // Weekly meeting slots, attended by every enrollment in the course
+    @ElementCollection
+    @CollectionTable(name = "course_meetings", joinColumns = @JoinColumn(name = "course_code"))
+    private Set<Meeting> meetings = new HashSet<>();
+
     public Course(String code, String name) {
         this.code = code;
         this.name = name;
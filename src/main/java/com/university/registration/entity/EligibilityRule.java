@@ -0,0 +1,55 @@
+package com.university.registration.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One allow/deny rule of the major x course eligibility table, compiled by EligibilityRules.
+// The most specific matching rule decides: a course rule beats a department rule, a rule naming the major
+// beats one for every major (major null), and deny beats allow between equally specific rules.
+// A course no rule matches is open to every major.
+@Entity
+@Table(name = "eligibility_rules", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_eligibility_rules_target", columnNames = {"scope", "target", "major"})
+})
+@Data
+@NoArgsConstructor
+public class EligibilityRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Scope scope;
+
+    // A course code, or a department: the letters a course code starts with (e.g. ECE for ECE321)
+    @Column(nullable = false)
+    private String target;
+
+    // Null for every major
+    @Enumerated(EnumType.STRING)
+    private Student.Major major;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Effect effect;
+
+    public EligibilityRule(Scope scope, String target, Student.Major major, Effect effect) {
+        this.scope = scope;
+        this.target = target;
+        this.major = major;
+        this.effect = effect;
+    }
+
+    public enum Scope {
+        COURSE,
+        DEPARTMENT
+    }
+
+    public enum Effect {
+        ALLOW,
+        DENY
+    }
+}
@@ -6,10 +6,18 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.ToString; 
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "enrollments", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"student_id", "course_code"})
+    @UniqueConstraint(name = "uk_enrollments_student_course", columnNames = {"student_id", "course_code"})
+}, indexes = {
+    // Keyset paging of the admin listings: status (+ course) filter, ordered by id
+    @Index(name = "idx_enrollments_status_id", columnList = "status, id"),
+    @Index(name = "idx_enrollments_status_course_id", columnList = "status, course_code, id"),
+    // A student's enrollments by status, and a course's by status (seat counts, waitlist, bulk updates)
+    @Index(name = "idx_enrollments_student_status", columnList = "student_id, status, passed, course_code"),
+    @Index(name = "idx_enrollments_course_status", columnList = "course_code, status, student_id")
 })
 @Data
 @NoArgsConstructor
@@ -17,8 +25,10 @@ import lombok.ToString;
 @EqualsAndHashCode(of = {"id"}) 
 @ToString(exclude = {"student", "course"}) 
 public class Enrollment {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_seq")
+    @SequenceGenerator(name = "enrollment_seq", sequenceName = "enrollment_sequence", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY) 
@@ -38,9 +48,16 @@ public class Enrollment {
     @Column(nullable = false)
     private Boolean passed = false; 
 
+    // Bumped by every update, including the conditional status/grade updates in EnrollmentRepository
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     public enum Status {
         PENDING,
         APPROVED,
-        REJECTED
+        REJECTED,
+        WAITLISTED
     }
 }
\ No newline at end of file
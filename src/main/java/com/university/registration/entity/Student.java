@@ -11,7 +11,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_major_id", columnList = "major, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,74 @@
+package com.university.registration.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Materialized academic standing of one student, kept current by StudentSummaryService
+@Entity
+@Table(name = "student_summaries")
+@Data
+@NoArgsConstructor
+public class StudentSummary {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    // Codes of approved and passed courses, comma-separated
+    @Column(name = "passed_courses", nullable = false, length = 4000)
+    private String passedCourses = "";
+
+    // Credits of the passed courses
+    @Column(nullable = false)
+    private int earnedCredits;
+
+    // Credits of every graded course, passed or not; the GPA's denominator
+    @Column(nullable = false)
+    private int gradedCredits;
+
+    // Sum of credits x grade points over the graded courses
+    @Column(nullable = false)
+    private double qualityPoints;
+
+    // Enrollments still waiting for a decision (pending or waitlisted)
+    @Column(nullable = false)
+    private int pendingRequests;
+
+    public StudentSummary(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Set<String> getPassedCourseCodes() {
+        return passedCourses.isEmpty()
+                ? Set.of()
+                : Arrays.stream(passedCourses.split(",")).collect(Collectors.toUnmodifiableSet());
+    }
+
+    public void setPassedCourseCodes(Set<String> codes) {
+        passedCourses = codes.stream().sorted().collect(Collectors.joining(","));
+    }
+
+    // On a 4.0 scale, null until something has been graded
+    public Double getGpa() {
+        return gradedCredits == 0 ? null : Math.round(qualityPoints / gradedCredits * 100) / 100.0;
+    }
+
+    // Percentage grade to grade points
+    public static double gradePoints(double grade) {
+        if (grade >= 90) return 4.0;
+        if (grade >= 85) return 3.7;
+        if (grade >= 80) return 3.3;
+        if (grade >= 75) return 3.0;
+        if (grade >= 70) return 2.7;
+        if (grade >= 65) return 2.3;
+        if (grade >= 60) return 2.0;
+        if (grade >= 55) return 1.7;
+        if (grade >= 50) return 1.0;
+        return 0.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.university.registration.exception;
+
+public class CourseFullException extends RuntimeException {
+    public CourseFullException(String message) {
+        super(message);
+    }
+}
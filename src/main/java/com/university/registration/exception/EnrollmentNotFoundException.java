@@ -0,0 +1,7 @@
+package com.university.registration.exception;
+
+public class EnrollmentNotFoundException extends RuntimeException {
+    public EnrollmentNotFoundException(String message) {
+        super(message);
+    }
+}
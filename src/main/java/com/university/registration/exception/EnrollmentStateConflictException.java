@@ -0,0 +1,7 @@
+package com.university.registration.exception;
+
+public class EnrollmentStateConflictException extends RuntimeException {
+    public EnrollmentStateConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.university.registration.exception;
+
+public class RegistrationQueueFullException extends RuntimeException {
+    public RegistrationQueueFullException(String message) {
+        super(message);
+    }
+}
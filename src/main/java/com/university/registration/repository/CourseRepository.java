@@ -1,9 +1,39 @@
 package com.university.registration.repository;
 
 import com.university.registration.entity.Course;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CourseRepository extends JpaRepository<Course, String> {
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "instructors")
+    @Query("select c from Course c order by c.code")
+    List<Course> findAllWithInstructors();
+
+    // Single-course read for catalogs too large to cache in full
+    @EntityGraph(attributePaths = "instructors")
+    Optional<Course> findWithInstructorsByCode(String code);
+
+    @Query("select c.code from Course c")
+    List<String> findAllCodes();
+
+    // Rows of [course code, prerequisite code] straight from course_prerequisites
+    @Query("select c.code, p.code from Course c join c.prerequisites p")
+    List<Object[]> findPrerequisitePairs();
+
+    // Rows of [course code, credits] for the given courses
+    @Query("select c.code, c.credits from Course c where c.code in :codes")
+    List<Object[]> findCredits(@Param("codes") Collection<String> codes);
+
+    // Rows of [course code, day, start time, end time] straight from course_meetings
+    @Query("select c.code, m.day, m.startTime, m.endTime from Course c join c.meetings m")
+    List<Object[]> findMeetingRows();
+}
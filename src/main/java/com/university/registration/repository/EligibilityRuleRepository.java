@@ -0,0 +1,9 @@
+package com.university.registration.repository;
+
+import com.university.registration.entity.EligibilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EligibilityRuleRepository extends JpaRepository<EligibilityRule, Long> {
+}
@@ -1,17 +1,176 @@
 package com.university.registration.repository;
 
+import com.university.registration.dto.EnrollmentExportRow;
+import com.university.registration.dto.EnrollmentUpdate;
+import com.university.registration.dto.EnrollmentState;
 import com.university.registration.entity.Enrollment;
 import com.university.registration.entity.Student;
-import com.university.registration.entity.Course;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
-    Optional<Enrollment> findByStudentAndCourse(Student student, Course course);
-    List<Enrollment> findByStudent(Student student);
-    List<Enrollment> findByStatus(Enrollment.Status status);
-    List<Enrollment> findByStudentAndStatus(Student student, Enrollment.Status status);
-}
\ No newline at end of file
+
+    // Rows per round trip when streaming exports (MySQL needs useCursorFetch=true to honour it)
+    int EXPORT_FETCH_SIZE = 1000;
+
+    // Keyset page: rows after the given id, optionally narrowed to a course and/or major
+    @Query("select e from Enrollment e join fetch e.student s join fetch e.course c " +
+           "where e.status = :status and e.id > :afterId " +
+           "and (:courseCode is null or c.code = :courseCode) " +
+           "and (:major is null or s.major = :major) " +
+           "order by e.id")
+    List<Enrollment> findPage(@Param("status") Enrollment.Status status,
+                              @Param("courseCode") String courseCode,
+                              @Param("major") Student.Major major,
+                              @Param("afterId") long afterId,
+                              Limit limit);
+
+    // Filters on the foreign key itself; the derived query left-joined students and filtered on the join,
+    // which no index on enrollments can serve
+    @Query("select e from Enrollment e join fetch e.course where e.student.id = :studentId")
+    List<Enrollment> findWithCourseByStudentId(@Param("studentId") Long studentId);
+
+    // Rows of [course code, status, enrollment count]
+    @Query("select e.course.code, e.status, count(e) from Enrollment e group by e.course.code, e.status")
+    List<Object[]> countByCourseAndStatus();
+
+    long countByCourseCodeAndStatusIn(String courseCode, Collection<Enrollment.Status> statuses);
+
+    // Oldest waitlisted entries first
+    List<Enrollment> findByCourseCodeAndStatusOrderByIdAsc(String courseCode, Enrollment.Status status, Limit limit);
+
+    @Query("select new com.university.registration.dto.EnrollmentState(e.id, e.student.id, e.course.code, e.status, e.grade, e.passed, e.version) "
+            + "from Enrollment e where e.id = :id")
+    Optional<EnrollmentState> findStateById(@Param("id") Long id);
+
+    // Compare-and-set on status (and version, when given); returns 0 if the row moved on in the meantime
+    @Modifying
+    @Query("update Enrollment e set e.status = :to, e.version = e.version + 1 "
+            + "where e.id = :id and e.status = :from and (:version is null or e.version = :version)")
+    int transition(@Param("id") Long id,
+                   @Param("from") Enrollment.Status from,
+                   @Param("to") Enrollment.Status to,
+                   @Param("version") Long version);
+
+    // Batch transitions: the rows are locked first, so the set update below applies to exactly these
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Enrollment e where e.id in :ids and e.status = :status")
+    List<Enrollment> lockByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                         @Param("status") Enrollment.Status status);
+
+    @Query("select e.id from Enrollment e where e.status = :status "
+            + "and (:courseCode is null or e.course.code = :courseCode) "
+            + "and (:major is null or e.student.major = :major) "
+            + "and e.id > :afterId order by e.id")
+    List<Long> findIdPage(@Param("status") Enrollment.Status status,
+                          @Param("courseCode") String courseCode,
+                          @Param("major") Student.Major major,
+                          @Param("afterId") long afterId,
+                          Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Enrollment e where e.course.code = :courseCode and e.status = :status order by e.id")
+    List<Enrollment> lockByCourseCodeAndStatus(@Param("courseCode") String courseCode,
+                                               @Param("status") Enrollment.Status status,
+                                               Limit limit);
+
+    @Modifying
+    @Query("update Enrollment e set e.status = :to, e.version = e.version + 1 where e.id in :ids")
+    int transitionAll(@Param("ids") Collection<Long> ids, @Param("to") Enrollment.Status to);
+
+    @Query("select new com.university.registration.dto.EnrollmentState(e.id, e.student.id, e.course.code, e.status, e.grade, e.passed, e.version) "
+            + "from Enrollment e where e.course.code = :courseCode and e.status = :status and e.student.id in :studentIds")
+    List<EnrollmentState> findStatesByCourseAndStudents(@Param("courseCode") String courseCode,
+                                                        @Param("status") Enrollment.Status status,
+                                                        @Param("studentIds") Collection<Long> studentIds);
+
+    @Modifying
+    @Query("update Enrollment e set e.grade = :grade, e.passed = :passed, e.version = e.version + 1 "
+            + "where e.id = :id and (:version is null or e.version = :version)")
+    int updateGrade(@Param("id") Long id,
+                    @Param("grade") Double grade,
+                    @Param("passed") Boolean passed,
+                    @Param("version") Long version);
+
+    // Rows of [course code, enrollment count]
+    @Query("select e.course.code, count(e) from Enrollment e group by e.course.code")
+    List<Object[]> countByCourse();
+
+    @Query("select e.course.code from Enrollment e where e.student.id = :studentId " +
+           "and e.passed = true and e.status = com.university.registration.entity.Enrollment.Status.APPROVED")
+    List<String> findPassedCourseCodes(@Param("studentId") Long studentId);
+
+    // Changed enrollments for the live dashboards, one query per dispatched batch
+    @Query("select new com.university.registration.dto.EnrollmentUpdate(" +
+           "e.id, s.id, s.name, s.major, c.code, c.name, e.status, e.grade, e.passed, e.version) " +
+           "from Enrollment e join e.student s join e.course c where e.id in :ids order by e.id")
+    List<EnrollmentUpdate> findUpdates(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor for exports; null filters mean any. Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.university.registration.dto.EnrollmentExportRow(" +
+           "e.id, s.id, s.name, s.major, c.code, c.name, e.status, e.grade, e.passed) " +
+           "from Enrollment e join e.student s join e.course c " +
+           "where (:status is null or e.status = :status) " +
+           "and (:courseCode is null or c.code = :courseCode) " +
+           "and (:major is null or s.major = :major) " +
+           "order by e.id")
+    Stream<EnrollmentExportRow> streamForExport(@Param("status") Enrollment.Status status,
+                                                @Param("courseCode") String courseCode,
+                                                @Param("major") Student.Major major);
+
+    // Rows of [student id, course code, credits, status, grade, passed], for StudentSummaryService
+    @Query("select e.student.id, e.course.code, e.course.credits, e.status, e.grade, e.passed " +
+           "from Enrollment e where e.student.id in :studentIds")
+    List<Object[]> findSummaryRows(@Param("studentIds") Collection<Long> studentIds);
+
+    // Rows of [student id, course code]
+    @Query("select e.student.id, e.course.code from Enrollment e where e.student.id in :studentIds " +
+           "and e.passed = true and e.status = com.university.registration.entity.Enrollment.Status.APPROVED")
+    List<Object[]> findPassedCourseCodes(@Param("studentIds") Collection<Long> studentIds);
+
+    // Rows of [student id, course code]
+    @Query("select e.student.id, e.course.code from Enrollment e " +
+           "where e.student.id in :studentIds and e.course.code in :courseCodes")
+    List<Object[]> findStudentCoursePairs(@Param("studentIds") Collection<Long> studentIds,
+                                          @Param("courseCodes") Collection<String> courseCodes);
+
+    // Courses on the student's timetable this term: graded enrollments belong to an earlier one
+    @Query("select e.course.code from Enrollment e where e.student.id = :studentId " +
+           "and e.status in :statuses and e.grade is null")
+    List<String> findScheduledCourseCodes(@Param("studentId") Long studentId,
+                                          @Param("statuses") Collection<Enrollment.Status> statuses);
+
+    // Rows of [student id, course code]
+    @Query("select e.student.id, e.course.code from Enrollment e where e.student.id in :studentIds " +
+           "and e.status in :statuses and e.grade is null")
+    List<Object[]> findScheduledCourseCodes(@Param("studentIds") Collection<Long> studentIds,
+                                            @Param("statuses") Collection<Enrollment.Status> statuses);
+
+    // Rows of [student id, student name, course code] for the term conflict report, grouped by student.
+    // Same cursor rules as streamForExport.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s.id, s.name, e.course.code from Enrollment e join e.student s " +
+           "where e.status in :statuses and e.grade is null order by s.id")
+    Stream<Object[]> streamScheduledCourses(@Param("statuses") Collection<Enrollment.Status> statuses);
+}
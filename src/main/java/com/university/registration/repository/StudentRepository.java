@@ -2,9 +2,18 @@
 package com.university.registration.repository;
 
 import com.university.registration.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
-}
\ No newline at end of file
+
+    // Keyset paging over every student, for whole-population jobs
+    @Query("select s.id from Student s where s.id > :afterId order by s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+}
@@ -0,0 +1,21 @@
+package com.university.registration.repository;
+
+import com.university.registration.entity.StudentSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StudentSummaryRepository extends JpaRepository<StudentSummary, Long> {
+
+    // Serializes refreshes of the same students; ordered so that overlapping refreshes lock in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StudentSummary s where s.studentId in :studentIds order by s.studentId")
+    List<StudentSummary> lockAllById(@Param("studentIds") Collection<Long> studentIds);
+}
@@ -0,0 +1,211 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.BulkRegistrationReport;
+import com.university.registration.dto.RegistrationRequest;
+import com.university.registration.dto.RegistrationResult;
+import com.university.registration.entity.*;
+import com.university.registration.repository.*;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class BulkRegistrationService {
+
+    // Rows validated and committed per transaction
+    static final int CHUNK_SIZE = 1000;
+    // A chunk that loses a race on the student/course key is re-validated, which then reports the duplicate
+    static final int CHUNK_ATTEMPTS = 3;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRegistrationService registrationService;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final Timetable timetable;
+    private final CourseCatalog courseCatalog;
+    private final SeatReservationService seatReservationService;
+    private final RegistrationMetrics registrationMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkRegistrationReport registerAll(List<RegistrationRequest> requests) {
+        List<RegistrationResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, requests.size());
+            List<Integer> rows = IntStream.rangeClosed(from + 1, to).boxed().toList();
+            results.addAll(registerChunk(requests.subList(from, to), rows));
+        }
+        return BulkRegistrationReport.of(results);
+    }
+
+    // Expects "studentId,courseCode" lines, optionally under that exact header
+    public BulkRegistrationReport registerCsv(Reader csv) {
+        List<RegistrationResult> results = new ArrayList<>();
+        List<RegistrationRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        int row = 0;
+        boolean first = true;
+
+        try (BufferedReader reader = new BufferedReader(csv)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (first) {
+                    first = false;
+                    if (fields.length == 2 && fields[0].trim().equalsIgnoreCase("studentId")
+                            && fields[1].trim().equalsIgnoreCase("courseCode")) {
+                        continue;
+                    }
+                }
+                boolean numericId = fields[0].trim().matches("\\d+");
+                row++;
+                if (fields.length != 2 || !numericId) {
+                    results.add(RegistrationResult.rejected(row, null, null, "Malformed line: " + line));
+                    continue;
+                }
+                chunk.add(new RegistrationRequest(Long.valueOf(fields[0].trim()), fields[1].trim()));
+                chunkRows.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(registerChunk(chunk, chunkRows));
+                    chunk.clear();
+                    chunkRows.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        results.addAll(registerChunk(chunk, chunkRows));
+        results.sort(Comparator.comparingInt(RegistrationResult::row));
+        return BulkRegistrationReport.of(results);
+    }
+
+    // rows holds the 1-based input row of each request, for the report
+    private List<RegistrationResult> registerChunk(List<RegistrationRequest> chunk, List<Integer> rows) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<RegistrationResult> results = transactionTemplate.execute(status -> validateAndInsert(chunk, rows));
+                // Counted once the chunk has committed, so a retried chunk is not counted twice
+                results.forEach(r -> registrationMetrics.countCourseRequest(r.courseCode(),
+                        r.outcome() == RegistrationResult.Outcome.ACCEPTED));
+                return results;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == CHUNK_ATTEMPTS || !CourseRegistrationService.isDuplicateEnrollment(e)) {
+                    throw e;
+                }
+            } catch (PessimisticLockingFailureException e) {
+                // Lost a deadlock on the shared seat counters to a chunk taking the same courses in another order
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<RegistrationResult> validateAndInsert(List<RegistrationRequest> chunk, List<Integer> rows) {
+        Set<Long> studentIds = chunk.stream()
+                .map(RegistrationRequest::studentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> courseCodes = chunk.stream()
+                .map(RegistrationRequest::courseCode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // Everything the chunk needs, loaded with set-based queries (or from the catalog) up front
+        Map<Long, Student> students = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<String, Course> courses = courseCodes.stream()
+                .filter(courseCatalog::contains)
+                .collect(Collectors.toMap(Function.identity(), courseRepository::getReferenceById));
+        Set<String> enrolled = new HashSet<>();
+        if (!students.isEmpty() && !courses.isEmpty()) {
+            for (Object[] pair : enrollmentRepository.findStudentCoursePairs(students.keySet(), courses.keySet())) {
+                enrolled.add(pair[0] + ":" + pair[1]);
+            }
+        }
+        prerequisiteGraph.preload(students.keySet());
+        timetable.preload(students.keySet());
+
+        List<RegistrationResult> results = new ArrayList<>(chunk.size());
+        Map<Integer, Enrollment> accepted = new LinkedHashMap<>();
+        // Seats taken earlier in this chunk are not on the cached timetables until it commits
+        Map<Long, List<String>> seatedInChunk = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            RegistrationRequest request = chunk.get(i);
+            int row = rows.get(i);
+            Student student = students.get(request.studentId());
+            Course course = courses.get(request.courseCode());
+
+            String error = null;
+            SeatReservationService.Reservation reservation = null;
+            if (student == null) {
+                error = "Student not found with ID: " + request.studentId();
+            } else if (course == null) {
+                error = "Course not found with code: " + request.courseCode();
+            } else if (!enrolled.add(student.getId() + ":" + course.getCode())) {
+                error = "Student already enrolled in course: " + course.getCode();
+            } else {
+                try {
+                    registrationService.validateCourseMajor(student, course);
+                    registrationService.checkPrerequisites(student, course);
+                    registrationService.checkSchedule(student, course,
+                            seatedInChunk.getOrDefault(student.getId(), List.of()));
+                    reservation = seatReservationService.reserve(course.getCode());
+                } catch (RuntimeException e) {
+                    error = e.getMessage();
+                }
+            }
+
+            if (error != null) {
+                results.add(RegistrationResult.rejected(row, request.studentId(), request.courseCode(), error));
+                continue;
+            }
+
+            Enrollment enrollment = new Enrollment();
+            enrollment.setStudent(student);
+            enrollment.setCourse(course);
+            enrollment.setStatus(reservation == SeatReservationService.Reservation.SEAT
+                    ? Enrollment.Status.PENDING
+                    : Enrollment.Status.WAITLISTED);
+            if (enrollment.getStatus() == Enrollment.Status.PENDING) {
+                seatedInChunk.computeIfAbsent(student.getId(), id -> new ArrayList<>()).add(course.getCode());
+            }
+            accepted.put(results.size(), enrollment);
+            results.add(null);
+        }
+
+        // Inserts go out as JDBC batches of hibernate.jdbc.batch_size. Flushed through the repository, whose
+        // proxy translates a lost race on the student/course key into the DataIntegrityViolationException
+        // registerChunk retries on; the shared EntityManager would throw Hibernate's exception untranslated.
+        enrollmentRepository.saveAllAndFlush(accepted.values());
+        accepted.values().forEach(enrollment -> eventPublisher.publishEvent(EnrollmentChangedEvent.created(enrollment)));
+        entityManager.clear();
+
+        accepted.forEach((index, enrollment) -> results.set(index, RegistrationResult.accepted(
+                rows.get(index), enrollment.getStudent().getId(), enrollment.getCourse().getCode(),
+                enrollment.getId(), enrollment.getStatus())));
+        return results;
+    }
+}
@@ -0,0 +1,212 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+// Keeps the in-memory state of several instances in step. Changes are written to the change_outbox table,
+// in the transaction that made them where there is one, and every instance polls the table and applies what
+// the others wrote: catalog and eligibility reloads, prerequisite and timetable cache evictions and live
+// dashboard pushes.
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "registration.cluster.enabled", havingValue = "true")
+public class ChangeBus {
+
+    enum Topic {
+        CATALOG,
+        ELIGIBILITY_RULES,
+        ENROLLMENT,
+        STUDENT_SUMMARY
+    }
+
+    private record Change(long id, Topic topic, Long entityId, Long studentId, String origin, long createdAt) {
+
+        static Change of(Topic topic, Long entityId, Long studentId) {
+            return new Change(0, topic, entityId, studentId, null, 0);
+        }
+    }
+
+    private static final String INSERT =
+            "insert into change_outbox (topic, entity_id, student_id, origin, created_at) values (?, ?, ?, ?, ?)";
+    private static final String SELECT =
+            "select id, topic, entity_id, student_id, origin, created_at from change_outbox where id > ? order by id";
+
+    // Set while a change from another instance is applied, so that it is not broadcast back
+    private static final ThreadLocal<Boolean> APPLYING = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final CourseCatalog courseCatalog;
+    private final EligibilityRules eligibilityRules;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final Timetable timetable;
+    private final DashboardEvents dashboardEvents;
+    private final String nodeId;
+    private final long graceMillis;
+    private final long retentionMillis;
+
+    // Every row up to the watermark has been applied; rows above it that were already applied are in seen
+    private long watermark;
+    private final Set<Long> seen = new HashSet<>();
+
+    public ChangeBus(JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager,
+                     CourseCatalog courseCatalog,
+                     EligibilityRules eligibilityRules,
+                     PrerequisiteGraph prerequisiteGraph,
+                     Timetable timetable,
+                     DashboardEvents dashboardEvents,
+                     @Value("${registration.cluster.node-id:}") String nodeId,
+                     @Value("${registration.cluster.grace:10s}") Duration grace,
+                     @Value("${registration.cluster.retention:10m}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.courseCatalog = courseCatalog;
+        this.eligibilityRules = eligibilityRules;
+        this.prerequisiteGraph = prerequisiteGraph;
+        this.timetable = timetable;
+        this.dashboardEvents = dashboardEvents;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.graceMillis = grace.toMillis();
+        this.retentionMillis = retention.toMillis();
+        // Only changes made from now on concern this instance; everything before is in the database it loads from
+        Long last = ReplicaRoutingDataSource.onPrimary(
+                () -> jdbcTemplate.queryForObject("select max(id) from change_outbox", Long.class));
+        this.watermark = last == null ? 0 : last;
+    }
+
+    // Published after commit, so each is written on its own
+    @EventListener
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        publishNow(List.of(Change.of(Topic.CATALOG, null, null)));
+    }
+
+    @EventListener
+    public void onSummariesChanged(StudentSummaryChangedEvent event) {
+        publishNow(event.studentIds().stream().map(id -> Change.of(Topic.STUDENT_SUMMARY, null, id)).toList());
+    }
+
+    // Published inside the changing transaction: written with it, so the change and its row commit together
+    @EventListener
+    public void onRulesChanged(EligibilityRulesChangedEvent event) {
+        publish(Change.of(Topic.ELIGIBILITY_RULES, null, null));
+    }
+
+    @EventListener
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        publish(Change.of(Topic.ENROLLMENT, event.enrollmentId(), event.studentId()));
+    }
+
+    private void publish(Change change) {
+        if (APPLYING.get() != null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishNow(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Change> changes = (Set<Change>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Set<Change> pending = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeBus.this);
+                }
+            });
+            changes = pending;
+        }
+        changes.add(change);
+    }
+
+    // In a transaction of its own: an after-commit callback would otherwise write into the finished one
+    private void publishNow(Collection<Change> changes) {
+        if (APPLYING.get() != null || changes.isEmpty()) {
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> insert(changes));
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast {} changes to the other instances", changes.size(), e);
+        }
+    }
+
+    private void insert(Collection<Change> changes) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.batchUpdate(INSERT, changes.stream()
+                .map(c -> new Object[]{c.topic().name(), c.entityId(), c.studentId(), nodeId, now})
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${registration.cluster.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        List<Change> changes = ReplicaRoutingDataSource.onPrimary(() -> jdbcTemplate.query(SELECT,
+                (rs, row) -> new Change(rs.getLong(1), Topic.valueOf(rs.getString(2)),
+                        rs.getObject(3, Long.class), rs.getObject(4, Long.class), rs.getString(5), rs.getLong(6)),
+                watermark));
+
+        long settled = System.currentTimeMillis() - graceMillis;
+        boolean advancing = true;
+        for (Change change : changes) {
+            if (seen.add(change.id()) && !nodeId.equals(change.origin())) {
+                apply(change);
+            }
+            // Ids are taken before commit, so a lower id can still show up after a higher one. Rows older than
+            // the grace period are settled: anything below them has committed or never will.
+            if (advancing && change.createdAt() < settled) {
+                watermark = change.id();
+            } else {
+                advancing = false;
+            }
+        }
+        seen.removeIf(id -> id <= watermark);
+    }
+
+    private void apply(Change change) {
+        APPLYING.set(Boolean.TRUE);
+        try {
+            switch (change.topic()) {
+                case CATALOG -> courseCatalog.invalidate();
+                case ELIGIBILITY_RULES -> eligibilityRules.reload();
+                case ENROLLMENT -> {
+                    timetable.evictStudent(change.studentId());
+                    dashboardEvents.push(change.entityId(), change.studentId());
+                }
+                case STUDENT_SUMMARY -> prerequisiteGraph.evictStudent(change.studentId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {} from instance {}", change, change.origin(), e);
+        } finally {
+            APPLYING.remove();
+        }
+    }
+
+    // Any instance may prune; rows are kept well past the point where every instance has applied them
+    @Scheduled(fixedDelay = 60_000)
+    public void prune() {
+        ReplicaRoutingDataSource.onPrimary(() -> jdbcTemplate.update(
+                "delete from change_outbox where created_at < ?", System.currentTimeMillis() - retentionMillis));
+    }
+}
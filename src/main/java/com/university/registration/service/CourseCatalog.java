@@ -0,0 +1,154 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.dto.CatalogStats;
+import com.university.registration.dto.CourseOverview;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Instructor;
+import com.university.registration.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Read-through cache of the course catalog; every course write must end with invalidate()
+@Component
+@RequiredArgsConstructor
+public class CourseCatalog {
+
+    private final CourseRepository courseRepository;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Above this many courses only the set of codes is cached; course details are read per call
+    @Value("${registration.catalog.max-size:10000}")
+    private int maxSize;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    // Bumped on every invalidation so a load that raced with it is not published
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // courses and byCode are null when the catalog is over maxSize
+    private record Snapshot(Set<String> codes, List<CourseOverview> courses, Map<String, CourseOverview> byCode) {
+    }
+
+    public List<CourseOverview> getCourses() {
+        List<CourseOverview> courses = current().courses();
+        return courses != null ? courses : loadCourses();
+    }
+
+    public Optional<CourseOverview> findCourse(String code) {
+        Snapshot current = current();
+        if (current.byCode() != null) {
+            return Optional.ofNullable(current.byCode().get(code));
+        }
+        if (!current.codes().contains(code)) {
+            return Optional.empty();
+        }
+        return ReplicaRoutingDataSource.onPrimary(() -> courseRepository.findWithInstructorsByCode(code))
+                .map(this::toOverview);
+    }
+
+    public boolean contains(String code) {
+        return current().codes().contains(code);
+    }
+
+    // The single invalidation hook: deferred to after commit when called inside a transaction
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate();
+                }
+            });
+        } else {
+            doInvalidate();
+        }
+    }
+
+    public CatalogStats getStats() {
+        Snapshot current = snapshot.get();
+        return new CatalogStats(hits.sum(), misses.sum(), loads.sum(), invalidations.sum(),
+                current == null ? 0 : current.codes().size(), maxSize, current != null && current.courses() != null);
+    }
+
+    private void doInvalidate() {
+        invalidations.increment();
+        // Listeners (the prerequisite graph among them) refresh before the next snapshot is built
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent());
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+
+        misses.increment();
+        loadLock.lock();
+        try {
+            current = snapshot.get();
+            if (current != null) {
+                return current;
+            }
+            long loadedGeneration = generation.get();
+            Snapshot loaded = load();
+            loads.increment();
+            if (generation.get() == loadedGeneration) {
+                snapshot.set(loaded);
+            }
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        Set<String> codes = Set.copyOf(ReplicaRoutingDataSource.onPrimary(courseRepository::findAllCodes));
+        if (codes.size() > maxSize) {
+            return new Snapshot(codes, null, null);
+        }
+        List<CourseOverview> courses = loadCourses();
+        Map<String, CourseOverview> byCode = courses.stream()
+                .collect(Collectors.toUnmodifiableMap(CourseOverview::code, Function.identity()));
+        return new Snapshot(byCode.keySet(), courses, byCode);
+    }
+
+    private List<CourseOverview> loadCourses() {
+        return ReplicaRoutingDataSource.onPrimary(courseRepository::findAllWithInstructors).stream()
+                .map(this::toOverview)
+                .toList();
+    }
+
+    private CourseOverview toOverview(Course course) {
+        return new CourseOverview(
+                course.getCode(),
+                course.getName(),
+                course.getCapacity(),
+                course.getInstructors().stream()
+                        .map(Instructor::getName)
+                        .sorted(Comparator.naturalOrder())
+                        .toList(),
+                prerequisiteGraph.getPrerequisiteCodes(course.getCode()));
+    }
+}
@@ -0,0 +1,5 @@
+package com.university.registration.service;
+
+// Published by CourseCatalog.invalidate() after course data has been written
+public record CourseCatalogChangedEvent() {
+}
@@ -1,36 +1,67 @@
 package com.university.registration.service;
 
+import com.university.registration.dto.CourseOverview;
+import com.university.registration.dto.EnrollmentPage;
+import com.university.registration.dto.EnrollmentState;
 import com.university.registration.entity.*;
 import com.university.registration.exception.*;
 import com.university.registration.repository.*;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class CourseRegistrationService {
 
+    private static final String STUDENT_COURSE_KEY = "uk_enrollments_student_course";
+
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final Timetable timetable;
+    private final CourseCatalog courseCatalog;
+    private final EligibilityRules eligibilityRules;
+    private final SeatReservationService seatReservationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RegistrationMetrics registrationMetrics;
 
     @Transactional
     public Enrollment registerCourse(Long studentId, String courseCode) {
+        Timer.Sample sample = registrationMetrics.start();
+        try {
+            Enrollment enrollment = register(studentId, courseCode);
+            registrationMetrics.completed(sample, courseCode, enrollment.getStatus() == Enrollment.Status.WAITLISTED
+                    ? RegistrationMetrics.WAITLISTED
+                    : RegistrationMetrics.ACCEPTED);
+            return enrollment;
+        } catch (RuntimeException e) {
+            registrationMetrics.completed(sample, courseCode, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    private Enrollment register(Long studentId, String courseCode) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new StudentNotFoundException("Student not found with ID: " + studentId));
 
-        Course course = courseRepository.findById(courseCode)
-                .orElseThrow(() -> new CourseNotFoundException("Course not found with code: " + courseCode));
-
-        // Check if already enrolled
-        if (enrollmentRepository.findByStudentAndCourse(student, course).isPresent()) {
-            throw new CourseAlreadyAddedException("Student already enrolled in course: " + courseCode);
+        // Existence is answered by the catalog cache; the enrollment only needs a reference
+        if (!courseCatalog.contains(courseCode)) {
+            throw new CourseNotFoundException("Course not found with code: " + courseCode);
         }
+        Course course = courseRepository.getReferenceById(courseCode);
 
         // Validate course major
         validateCourseMajor(student, course);
@@ -38,97 +69,180 @@ public class CourseRegistrationService {
         // Check prerequisites
         checkPrerequisites(student, course);
 
+        // Check the meeting times against the student's timetable
+        checkSchedule(student, course, List.of());
+
+        // Seat or waitlist place, taken in memory (in course_seats on a cluster); handed back automatically on rollback
+        SeatReservationService.Reservation reservation = seatReservationService.reserve(courseCode);
+
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
         enrollment.setCourse(course);
-        enrollment.setStatus(Enrollment.Status.PENDING);
-
-        return enrollmentRepository.save(enrollment);
+        enrollment.setStatus(reservation == SeatReservationService.Reservation.SEAT
+                ? Enrollment.Status.PENDING
+                : Enrollment.Status.WAITLISTED);
+
+        // Duplicates are caught by the unique key rather than a racy pre-read; the seat goes back on rollback
+        try {
+            Enrollment saved = enrollmentRepository.saveAndFlush(enrollment);
+            eventPublisher.publishEvent(EnrollmentChangedEvent.created(saved));
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEnrollment(e)) {
+                throw new CourseAlreadyAddedException("Student already enrolled in course: " + courseCode);
+            }
+            throw e;
+        }
     }
 
-    private void validateCourseMajor(Student student, Course course) {
-        String courseCode = course.getCode();
-        
-        // MTH courses are for both majors
-        if (courseCode.startsWith("MTH")) {
-            return;
-        }
+    static boolean isDuplicateEnrollment(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(STUDENT_COURSE_KEY);
+    }
 
-        // ECE courses for Computer Engineering
-        if (courseCode.startsWith("ECE") && student.getMajor() != Student.Major.COMPUTER_ENGINEERING) {
+    void validateCourseMajor(Student student, Course course) {
+        // Answered from the compiled eligibility matrix
+        if (!eligibilityRules.isAllowed(student.getMajor(), course.getCode())) {
             throw new WrongCourseMajorException(
-                "Computer Engineering course " + courseCode + " not available for " + student.getMajor()
+                "Course " + course.getCode() + " not available for " + student.getMajor()
             );
         }
+    }
 
-        // MNG courses for Mechanical Engineering
-        if (courseCode.startsWith("MNG") && student.getMajor() != Student.Major.MECHANICAL_ENGINEERING) {
-            throw new WrongCourseMajorException(
-                "Mechanical Engineering course " + courseCode + " not available for " + student.getMajor()
-            );
-        }
+    void checkPrerequisites(Student student, Course course) {
+        // Answered from the in-memory graph and the student's cached passed-course bitset
+        prerequisiteGraph.findMissingPrerequisite(student.getId(), course.getCode())
+                .ifPresent(missing -> {
+                    throw new PrerequisiteNotMetException(
+                        "Prerequisite not met: " + missing + " is required for " + course.getCode()
+                    );
+                });
     }
 
-    private void checkPrerequisites(Student student, Course course) {
-        if (course.getPrerequisites().isEmpty()) {
-            return;
-        }
+    // Answered from the student's cached week mask; alsoTaking are courses granted earlier in the same batch
+    void checkSchedule(Student student, Course course, Collection<String> alsoTaking) {
+        timetable.findConflict(student.getId(), course.getCode(), alsoTaking)
+                .ifPresent(clash -> {
+                    throw new ScheduleConflictException(
+                        "Schedule conflict: " + course.getCode() + " meets at the same time as " + clash
+                    );
+                });
+    }
 
-        Set<String> completedCourses = enrollmentRepository.findByStudent(student).stream()
-                .filter(e -> e.getPassed() && e.getStatus() == Enrollment.Status.APPROVED)
-                .map(e -> e.getCourse().getCode())
-                .collect(Collectors.toSet());
+    // Read-only work may be served by a replica (see ReplicaDataSourceConfig)
+    @Transactional(readOnly = true)
+    public List<Enrollment> getStudentEnrollments(Long studentId) {
+        List<Enrollment> enrollments = enrollmentRepository.findWithCourseByStudentId(studentId);
+        // Only an empty result needs the extra lookup to tell "no enrollments" from "no such student"
+        if (enrollments.isEmpty() && !studentRepository.existsById(studentId)) {
+            throw new StudentNotFoundException("Student not found with ID: " + studentId);
+        }
+        return enrollments;
+    }
 
-        for (Course prerequisite : course.getPrerequisites()) {
-            if (!completedCourses.contains(prerequisite.getCode())) {
-                throw new PrerequisiteNotMetException(
-                    "Prerequisite not met: " + prerequisite.getCode() + " is required for " + course.getCode()
-                );
-            }
+    @Transactional(readOnly = true)
+    public EnrollmentPage getEnrollmentPage(Enrollment.Status status, String courseCode, Student.Major major,
+                                            Long afterId, int size) {
+        // One extra row tells us whether another page follows
+        List<Enrollment> rows = enrollmentRepository.findPage(
+                status, courseCode, major, afterId == null ? 0L : afterId, Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new EnrollmentPage(rows, null);
         }
+        List<Enrollment> page = rows.subList(0, size);
+        return new EnrollmentPage(page, page.get(size - 1).getId());
     }
 
-    public List<Enrollment> getStudentEnrollments(Long studentId) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new StudentNotFoundException("Student not found with ID: " + studentId));
-        return enrollmentRepository.findByStudent(student);
+    // expectedVersion is the version the caller last saw, or null to only require the enrollment to be pending
+    @Transactional
+    public EnrollmentState approveEnrollment(Long enrollmentId, Long expectedVersion) {
+        int updated = enrollmentRepository.transition(
+                enrollmentId, Enrollment.Status.PENDING, Enrollment.Status.APPROVED, expectedVersion);
+        EnrollmentState approved = stateAfterUpdate(enrollmentId, updated, "approved");
+        eventPublisher.publishEvent(EnrollmentChangedEvent.transitioned(Enrollment.Status.PENDING, approved));
+        return approved;
     }
 
-    public List<Enrollment> getPendingEnrollments() {
-        return enrollmentRepository.findByStatus(Enrollment.Status.PENDING);
+    @Transactional
+    public EnrollmentState rejectEnrollment(Long enrollmentId, Long expectedVersion) {
+        // The previous status decides what happens to the seat, so it is read and then used as the guard
+        EnrollmentState current = enrollmentRepository.findStateById(enrollmentId)
+                .orElseThrow(() -> new EnrollmentNotFoundException("Enrollment not found with ID: " + enrollmentId));
+        if (current.status() == Enrollment.Status.REJECTED
+                || (expectedVersion != null && expectedVersion != current.version())) {
+            throw conflict(current, "rejected");
+        }
+        if (enrollmentRepository.transition(enrollmentId, current.status(), Enrollment.Status.REJECTED, current.version()) == 0) {
+            throw new EnrollmentStateConflictException(
+                    "Enrollment " + enrollmentId + " was changed by someone else; reload and try again");
+        }
+        EnrollmentState rejected = new EnrollmentState(current.id(), current.studentId(), current.courseCode(),
+                Enrollment.Status.REJECTED, current.grade(), current.passed(), current.version() + 1);
+        eventPublisher.publishEvent(EnrollmentChangedEvent.changed(current, rejected));
+
+        String courseCode = current.courseCode();
+        if (current.status() == Enrollment.Status.WAITLISTED) {
+            seatReservationService.leaveWaitlist(courseCode);
+        } else if (SeatReservationService.SEATED.contains(current.status()) && !promoteFromWaitlist(courseCode)) {
+            seatReservationService.releaseSeat(courseCode);
+        }
+        return rejected;
     }
 
-    public List<Enrollment> getApprovedEnrollments() {
-        return enrollmentRepository.findByStatus(Enrollment.Status.APPROVED);
+    // Hands a freed seat to the oldest waitlisted enrollment; the seat counter itself does not change
+    private boolean promoteFromWaitlist(String courseCode) {
+        List<Enrollment> candidates = enrollmentRepository.findByCourseCodeAndStatusOrderByIdAsc(
+                courseCode, Enrollment.Status.WAITLISTED, Limit.of(5));
+        for (Enrollment candidate : candidates) {
+            // Conditional update, so two concurrent rejections cannot promote the same entry
+            if (enrollmentRepository.transition(candidate.getId(), Enrollment.Status.WAITLISTED, Enrollment.Status.PENDING, null) == 1) {
+                seatReservationService.leaveWaitlist(courseCode);
+                eventPublisher.publishEvent(EnrollmentChangedEvent.transitioned(candidate, Enrollment.Status.PENDING));
+                return true;
+            }
+        }
+        return false;
     }
 
+    // Without an expected version the grade replaces the one just read, so listeners know what it replaced
     @Transactional
-    public Enrollment approveEnrollment(Long enrollmentId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new RuntimeException("Enrollment not found"));
-        enrollment.setStatus(Enrollment.Status.APPROVED);
-        return enrollmentRepository.save(enrollment);
+    public EnrollmentState setGrade(Long enrollmentId, Double grade, Boolean passed, Long expectedVersion) {
+        EnrollmentState current = enrollmentRepository.findStateById(enrollmentId)
+                .orElseThrow(() -> new EnrollmentNotFoundException("Enrollment not found with ID: " + enrollmentId));
+        int updated = enrollmentRepository.updateGrade(enrollmentId, grade, passed,
+                expectedVersion != null ? expectedVersion : current.version());
+        EnrollmentState graded = stateAfterUpdate(enrollmentId, updated, "graded");
+        eventPublisher.publishEvent(EnrollmentChangedEvent.changed(current, graded));
+        return graded;
     }
 
-    @Transactional
-    public Enrollment rejectEnrollment(Long enrollmentId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new RuntimeException("Enrollment not found"));
-        enrollment.setStatus(Enrollment.Status.REJECTED);
-        return enrollmentRepository.save(enrollment);
+    // A conditional update that touched nothing means either an unknown id or a concurrent change
+    private EnrollmentState stateAfterUpdate(Long enrollmentId, int updated, String action) {
+        EnrollmentState state = enrollmentRepository.findStateById(enrollmentId)
+                .orElseThrow(() -> new EnrollmentNotFoundException("Enrollment not found with ID: " + enrollmentId));
+        if (updated == 0) {
+            throw conflict(state, action);
+        }
+        return state;
     }
 
-    @Transactional
-    public Enrollment setGrade(Long enrollmentId, Double grade, Boolean passed) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new RuntimeException("Enrollment not found"));
-        enrollment.setGrade(grade);
-        enrollment.setPassed(passed);
-        return enrollmentRepository.save(enrollment);
+    private static EnrollmentStateConflictException conflict(EnrollmentState state, String action) {
+        return new EnrollmentStateConflictException("Enrollment " + state.id() + " cannot be " + action
+                + ": it is " + state.status() + " at version " + state.version() + "; reload and try again");
     }
 
-    public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+    public List<CourseOverview> getCourseOverviews() {
+        return courseCatalog.getCourses();
     }
-    
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> getEnrollmentCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : enrollmentRepository.countByCourse()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
 }
\ No newline at end of file
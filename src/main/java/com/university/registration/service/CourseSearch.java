@@ -0,0 +1,348 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.dto.CourseHit;
+import com.university.registration.dto.CourseSearchResult;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Instructor;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+// In-memory search over course code, name and instructor names. Every word is indexed whole, in a sorted term
+// dictionary that answers exact and prefix matches, and the dictionary itself is indexed by trigrams, which find
+// the candidate terms for a misspelt word. A catalog change re-analyses only the courses that changed and patches
+// their postings into a copy of the index, which then replaces the old one whole.
+@Component
+@RequiredArgsConstructor
+public class CourseSearch {
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern LETTER_DIGIT = Pattern.compile("(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})");
+
+    private final CourseRepository courseRepository;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final EligibilityRules eligibilityRules;
+
+    // The indexed fields of a course and the distinct terms they produce
+    private record Doc(String code, String name, String department, List<String> instructors, String[] terms) {
+    }
+
+    // Doc ids are slots in docs; removed courses leave a null until the next full build
+    private record Index(Doc[] docs,
+                         Map<String, Integer> idByCode,
+                         Map<String, int[]> postings,
+                         String[] terms,
+                         Map<String, String[]> termsByGram) {
+
+        static final Index EMPTY = new Index(new Doc[0], Map.of(), Map.of(), new String[0], Map.of());
+
+        int removed() {
+            return docs.length - idByCode.size();
+        }
+    }
+
+    private volatile Index index = Index.EMPTY;
+    private final Object updateLock = new Object();
+
+    @EventListener({ApplicationReadyEvent.class, CourseCatalogChangedEvent.class})
+    public void refresh() {
+        List<Course> courses = ReplicaRoutingDataSource.onPrimary(courseRepository::findAllWithInstructors);
+        Map<String, Doc> current = new HashMap<>();
+        for (Course course : courses) {
+            current.put(course.getCode(), analyse(course));
+        }
+        synchronized (updateLock) {
+            Index base = index;
+            // Mostly removals since the last full build: start over rather than carry the holes
+            if (base.removed() > 1024 && base.removed() > base.idByCode().size()) {
+                base = Index.EMPTY;
+            }
+            index = update(base, current);
+        }
+    }
+
+    // An empty query lists every course that passes the filters, by code
+    public CourseSearchResult search(String query, String department, Student.Major major, int limit) {
+        Index current = index;
+        Doc[] docs = current.docs();
+        String[] words = words(query).toArray(String[]::new);
+
+        // Docs that match every word, with their summed score; -1 where a word did not match
+        int[] scores = new int[docs.length];
+        for (String word : words) {
+            int[] best = new int[docs.length];
+            match(current, word, best);
+            for (int id = 0; id < docs.length; id++) {
+                scores[id] = scores[id] < 0 || best[id] == 0 ? -1 : scores[id] + best[id];
+            }
+        }
+
+        String wantedDepartment = department == null || department.isBlank() ? null : department.toUpperCase(Locale.ROOT);
+        Map<String, Integer> departments = new TreeMap<>();
+        Map<Student.Major, Integer> majors = new EnumMap<>(Student.Major.class);
+        List<Integer> matches = new ArrayList<>();
+        for (int id = 0; id < docs.length; id++) {
+            Doc doc = docs[id];
+            if (doc == null || scores[id] < 0) {
+                continue;
+            }
+            boolean inDepartment = wantedDepartment == null || wantedDepartment.equals(doc.department());
+            boolean eligible = major == null || eligibilityRules.isAllowed(major, doc.code());
+            if (eligible) {
+                departments.merge(doc.department(), 1, Integer::sum);
+            }
+            if (inDepartment) {
+                for (Student.Major m : Student.Major.values()) {
+                    if (eligibilityRules.isAllowed(m, doc.code())) {
+                        majors.merge(m, 1, Integer::sum);
+                    }
+                }
+            }
+            if (inDepartment && eligible) {
+                matches.add(id);
+            }
+        }
+
+        matches.sort(Comparator.<Integer>comparingInt(id -> -scores[id]).thenComparing(id -> docs[id].code()));
+        List<CourseHit> hits = matches.stream()
+                .limit(limit)
+                .map(id -> docs[id])
+                .map(doc -> new CourseHit(doc.code(), doc.name(), doc.department(), doc.instructors(),
+                        prerequisiteGraph.getPrerequisiteCodes(doc.code())))
+                .toList();
+        return new CourseSearchResult(query, matches.size(), hits, departments, majors);
+    }
+
+    // Best score per doc for one query word: the word itself, terms it starts, and terms within a typo or two
+    private static void match(Index index, String word, int[] best) {
+        mark(index.postings().get(word), EXACT, best);
+
+        String[] terms = index.terms();
+        int from = Arrays.binarySearch(terms, word);
+        for (int i = from < 0 ? -from - 1 : from + 1; i < terms.length && terms[i].startsWith(word); i++) {
+            mark(index.postings().get(terms[i]), PREFIX, best);
+        }
+
+        int maxEdits = maxEdits(word);
+        if (maxEdits == 0) {
+            return;
+        }
+        // A term within k edits shares all but at most 3k of the word's trigrams
+        List<String> grams = grams(word);
+        int needed = Math.max(1, grams.size() - 3 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            for (String term : index.termsByGram().getOrDefault(gram, new String[0])) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        shared.forEach((term, count) -> {
+            if (count >= needed && withinEdits(word, term, maxEdits)) {
+                mark(index.postings().get(term), FUZZY, best);
+            }
+        });
+    }
+
+    private static void mark(int[] postings, int score, int[] best) {
+        if (postings != null) {
+            for (int id : postings) {
+                best[id] = Math.max(best[id], score);
+            }
+        }
+    }
+
+    private static Index update(Index base, Map<String, Doc> current) {
+        Doc[] docs = base.docs();
+        Map<String, Integer> idByCode = new HashMap<>(base.idByCode());
+        Map<String, List<Integer>> removals = new HashMap<>();
+        Map<String, List<Integer>> additions = new HashMap<>();
+
+        List<Doc> added = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : base.idByCode().entrySet()) {
+            Doc before = docs[entry.getValue()];
+            Doc after = current.get(entry.getKey());
+            if (after == null || !sameFields(before, after)) {
+                idByCode.remove(entry.getKey());
+                for (String term : before.terms()) {
+                    removals.computeIfAbsent(term, t -> new ArrayList<>()).add(entry.getValue());
+                }
+            }
+        }
+        for (Doc doc : current.values()) {
+            if (!idByCode.containsKey(doc.code())) {
+                added.add(doc);
+            }
+        }
+        if (removals.isEmpty() && added.isEmpty()) {
+            return base;
+        }
+
+        docs = Arrays.copyOf(docs, docs.length + added.size());
+        for (String code : base.idByCode().keySet()) {
+            if (!idByCode.containsKey(code)) {
+                docs[base.idByCode().get(code)] = null;
+            }
+        }
+        int next = base.docs().length;
+        for (Doc doc : added) {
+            docs[next] = doc;
+            idByCode.put(doc.code(), next);
+            for (String term : doc.terms()) {
+                additions.computeIfAbsent(term, t -> new ArrayList<>()).add(next);
+            }
+            next++;
+        }
+
+        // Only the postings of touched terms are rebuilt
+        Map<String, int[]> postings = new HashMap<>(base.postings());
+        Set<String> touched = new HashSet<>(removals.keySet());
+        touched.addAll(additions.keySet());
+        Set<String> newTerms = new HashSet<>();
+        Set<String> goneTerms = new HashSet<>();
+        for (String term : touched) {
+            Set<Integer> gone = new HashSet<>(removals.getOrDefault(term, List.of()));
+            int[] before = postings.getOrDefault(term, new int[0]);
+            int[] after = IntStream.concat(
+                            Arrays.stream(before).filter(id -> !gone.contains(id)),
+                            additions.getOrDefault(term, List.of()).stream().mapToInt(Integer::intValue))
+                    .sorted()
+                    .toArray();
+            if (after.length == 0) {
+                postings.remove(term);
+                if (before.length > 0) {
+                    goneTerms.add(term);
+                }
+            } else {
+                postings.put(term, after);
+                if (before.length == 0) {
+                    newTerms.add(term);
+                }
+            }
+        }
+        if (newTerms.isEmpty() && goneTerms.isEmpty()) {
+            return new Index(docs, idByCode, postings, base.terms(), base.termsByGram());
+        }
+
+        String[] terms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(terms);
+        Map<String, String[]> termsByGram = new HashMap<>(base.termsByGram());
+        Map<String, Set<String>> changedGrams = new HashMap<>();
+        for (String term : newTerms) {
+            grams(term).forEach(gram -> changedGrams.computeIfAbsent(gram, g -> new HashSet<>()).add(term));
+        }
+        for (String term : goneTerms) {
+            grams(term).forEach(gram -> changedGrams.computeIfAbsent(gram, g -> new HashSet<>()));
+        }
+        changedGrams.forEach((gram, adding) -> {
+            Set<String> gramTerms = new HashSet<>(Arrays.asList(termsByGram.getOrDefault(gram, new String[0])));
+            gramTerms.removeAll(goneTerms);
+            gramTerms.addAll(adding);
+            if (gramTerms.isEmpty()) {
+                termsByGram.remove(gram);
+            } else {
+                termsByGram.put(gram, gramTerms.toArray(String[]::new));
+            }
+        });
+        return new Index(docs, idByCode, postings, terms, termsByGram);
+    }
+
+    private static boolean sameFields(Doc a, Doc b) {
+        return a.name().equals(b.name()) && a.instructors().equals(b.instructors());
+    }
+
+    private static Doc analyse(Course course) {
+        List<String> instructors = course.getInstructors().stream()
+                .map(Instructor::getName)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+        Set<String> terms = new LinkedHashSet<>(words(course.getCode()));
+        terms.addAll(words(course.getName()));
+        instructors.forEach(name -> terms.addAll(words(name)));
+        return new Doc(course.getCode(), course.getName(), EligibilityRules.departmentOf(course.getCode()), instructors,
+                terms.toArray(String[]::new));
+    }
+
+    // Lower-cased words without accents; a word mixing letters and digits also yields its parts, so "ece221",
+    // "ece" and "221" all find ECE221
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(plain.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            words.add(word);
+            String[] parts = LETTER_DIGIT.split(word);
+            if (parts.length > 1) {
+                words.addAll(Arrays.asList(parts));
+            }
+        }
+        return words;
+    }
+
+    // Trigrams of the word with a start marker, so the first letters count for more
+    private static List<String> grams(String word) {
+        String padded = "^" + word;
+        if (padded.length() <= 3) {
+            return List.of(padded);
+        }
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static int maxEdits(String word) {
+        return word.length() < 4 ? 0 : word.length() < 8 ? 1 : 2;
+    }
+
+    // Optimal string alignment distance from the word to the term, or to any prefix of it, so that a misspelt
+    // word still completes: "calcls" is within one edit of "calcul"
+    static boolean withinEdits(String word, String term, int maxEdits) {
+        int n = word.length();
+        int m = term.length();
+        if (m < n - maxEdits) {
+            return false;
+        }
+        int[][] d = new int[n + 1][m + 1];
+        for (int i = 0; i <= n; i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= m; j++) {
+                int cost = word.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && word.charAt(i - 1) == term.charAt(j - 2) && word.charAt(i - 2) == term.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        for (int j = Math.max(0, n - maxEdits); j <= m; j++) {
+            if (d[n][j] <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
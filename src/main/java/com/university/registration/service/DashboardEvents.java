@@ -0,0 +1,185 @@
+package com.university.registration.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.dto.EnrollmentUpdate;
+import com.university.registration.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Pushes committed enrollment changes to open dashboards over SSE. Admins get every change, students their own.
+// Changes are collected by one dispatcher thread, which loads a whole batch of them with a single query and
+// serializes each once however many dashboards receive it. Idle connections hold no thread: only the emitter.
+@Slf4j
+@Service
+public class DashboardEvents implements SmartLifecycle {
+
+    static final String ENROLLMENT_EVENT = "enrollment";
+    // Changed enrollments loaded per query
+    private static final int DISPATCH_BATCH = 500;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+
+    private final Set<SseEmitter> admins = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<SseEmitter>> byStudent = new ConcurrentHashMap<>();
+    private final BlockingQueue<Long> changed = new LinkedBlockingQueue<>();
+    private volatile Thread dispatcher;
+    private volatile boolean running;
+
+    public DashboardEvents(EnrollmentRepository enrollmentRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${registration.dashboard.sse-timeout:30m}") Duration timeout,
+                           MeterRegistry meterRegistry) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeout.toMillis();
+
+        Gauge.builder("registration.dashboard.subscribers", admins, Set::size).tag("audience", "admin")
+                .description("Open live dashboard connections")
+                .register(meterRegistry);
+        Gauge.builder("registration.dashboard.subscribers", byStudent,
+                        m -> m.values().stream().mapToInt(Set::size).sum())
+                .tag("audience", "student")
+                .description("Open live dashboard connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribeAdmin() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        return register(emitter, () -> admins.add(emitter), () -> admins.remove(emitter));
+    }
+
+    public SseEmitter subscribeStudent(Long studentId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Added and removed inside compute, so a student's last emitter leaving never drops a newly added one
+        return register(emitter,
+                () -> byStudent.compute(studentId, (id, emitters) -> {
+                    Set<SseEmitter> set = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+                    set.add(emitter);
+                    return set;
+                }),
+                () -> byStudent.computeIfPresent(studentId, (id, emitters) -> {
+                    emitters.remove(emitter);
+                    return emitters.isEmpty() ? null : emitters;
+                }));
+    }
+
+    // EventSource reconnects by itself once the timeout completes the stream
+    private static SseEmitter register(SseEmitter emitter, Runnable add, Runnable remove) {
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        add.run();
+        return emitter;
+    }
+
+    // After commit, so dashboards never see a change that is rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        push(event.enrollmentId(), event.studentId());
+    }
+
+    // Also called by ChangeBus for changes committed on another instance
+    public void push(Long enrollmentId, Long studentId) {
+        if (!admins.isEmpty() || byStudent.containsKey(studentId)) {
+            changed.add(enrollmentId);
+        }
+    }
+
+    private void dispatch() {
+        List<Long> batch = new ArrayList<>(DISPATCH_BATCH);
+        while (running) {
+            try {
+                Long first = changed.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                changed.drainTo(batch, DISPATCH_BATCH - 1);
+                publish(new TreeSet<>(batch));
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not push {} enrollment changes to the dashboards", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(Collection<Long> enrollmentIds) {
+        // Just committed, so read from the primary rather than a replica that may not have it yet
+        List<EnrollmentUpdate> updates =
+                ReplicaRoutingDataSource.onPrimary(() -> enrollmentRepository.findUpdates(enrollmentIds));
+        for (EnrollmentUpdate update : updates) {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(update);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            sendAll(admins, ENROLLMENT_EVENT, json);
+            Set<SseEmitter> student = byStudent.get(update.studentId());
+            if (student != null) {
+                sendAll(student, ENROLLMENT_EVENT, json);
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedDelayString = "${registration.dashboard.heartbeat-ms:25000}")
+    public void heartbeat() {
+        sendAll(admins, null, null);
+        byStudent.values().forEach(emitters -> sendAll(emitters, null, null));
+    }
+
+    private static void sendAll(Set<SseEmitter> emitters, String name, String data) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(name == null
+                        ? SseEmitter.event().comment("")
+                        : SseEmitter.event().name(name).data(data));
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofPlatform().name("dashboard-events").daemon().start(this::dispatch);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        admins.forEach(SseEmitter::complete);
+        byStudent.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
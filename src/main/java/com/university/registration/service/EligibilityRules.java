@@ -0,0 +1,187 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.entity.EligibilityRule;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EligibilityRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The eligibility_rules table compiled into a course x major matrix, so a check is a map lookup and an
+// array access. Recompiled after every rule change and whenever the course catalog changes.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EligibilityRules {
+
+    private static final Student.Major[] MAJORS = Student.Major.values();
+
+    // What the registration service used to hard-code; seeded into an empty table on startup
+    static final List<EligibilityRule> DEFAULT_RULES = List.of(
+            new EligibilityRule(EligibilityRule.Scope.DEPARTMENT, "ECE", null, EligibilityRule.Effect.DENY),
+            new EligibilityRule(EligibilityRule.Scope.DEPARTMENT, "ECE", Student.Major.COMPUTER_ENGINEERING,
+                    EligibilityRule.Effect.ALLOW),
+            new EligibilityRule(EligibilityRule.Scope.DEPARTMENT, "MNG", null, EligibilityRule.Effect.DENY),
+            new EligibilityRule(EligibilityRule.Scope.DEPARTMENT, "MNG", Student.Major.MECHANICAL_ENGINEERING,
+                    EligibilityRule.Effect.ALLOW));
+
+    private final EligibilityRuleRepository ruleRepository;
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Matrix matrix;
+    private final ReentrantLock compileLock = new ReentrantLock();
+
+    // allowed[course index][major ordinal]; rules are kept for courses added since the last compile
+    private record Matrix(Map<String, Integer> courseIndex, boolean[][] allowed, Ruleset rules) {
+    }
+
+    // Rules grouped by target, ready for evaluation
+    private record Ruleset(Map<String, List<EligibilityRule>> byCourse, Map<String, List<EligibilityRule>> byDepartment) {
+    }
+
+    public boolean isAllowed(Student.Major major, String courseCode) {
+        Matrix current = current();
+        Integer course = current.courseIndex().get(courseCode);
+        if (course != null) {
+            return current.allowed()[course][major.ordinal()];
+        }
+        return evaluate(current.rules(), major, courseCode);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EligibilityRule> getRules() {
+        return ruleRepository.findAll();
+    }
+
+    @Transactional
+    public EligibilityRule addRule(EligibilityRule rule) {
+        rule.setId(null);
+        rule.setTarget(rule.getTarget().trim().toUpperCase(Locale.ROOT));
+        EligibilityRule saved = ruleRepository.save(rule);
+        eventPublisher.publishEvent(new EligibilityRulesChangedEvent());
+        return saved;
+    }
+
+    @Transactional
+    public void removeRule(Long id) {
+        ruleRepository.deleteById(id);
+        eventPublisher.publishEvent(new EligibilityRulesChangedEvent());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedDefaultsIfEmpty() {
+        if (ruleRepository.count() == 0) {
+            ruleRepository.saveAll(DEFAULT_RULES.stream()
+                    .map(rule -> new EligibilityRule(rule.getScope(), rule.getTarget(), rule.getMajor(), rule.getEffect()))
+                    .toList());
+            log.info("Seeded {} default eligibility rules", DEFAULT_RULES.size());
+        }
+        reload();
+    }
+
+    // For rule edits made outside the application; every instance reloads
+    public void reloadAll() {
+        eventPublisher.publishEvent(new EligibilityRulesChangedEvent());
+    }
+
+    @EventListener(CourseCatalogChangedEvent.class)
+    public void reload() {
+        compileLock.lock();
+        try {
+            matrix = compile();
+        } finally {
+            compileLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRulesChanged(EligibilityRulesChangedEvent event) {
+        reload();
+    }
+
+    private Matrix current() {
+        Matrix current = matrix;
+        if (current == null) {
+            compileLock.lock();
+            try {
+                current = matrix;
+                if (current == null) {
+                    current = compile();
+                    matrix = current;
+                }
+            } finally {
+                compileLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Matrix compile() {
+        Ruleset rules = group(ReplicaRoutingDataSource.onPrimary(ruleRepository::findAll));
+        List<String> codes = ReplicaRoutingDataSource.onPrimary(courseRepository::findAllCodes);
+
+        Map<String, Integer> courseIndex = new HashMap<>();
+        boolean[][] allowed = new boolean[codes.size()][MAJORS.length];
+        for (int course = 0; course < codes.size(); course++) {
+            courseIndex.put(codes.get(course), course);
+            for (Student.Major major : MAJORS) {
+                allowed[course][major.ordinal()] = evaluate(rules, major, codes.get(course));
+            }
+        }
+        return new Matrix(Map.copyOf(courseIndex), allowed, rules);
+    }
+
+    private static Ruleset group(List<EligibilityRule> rules) {
+        Map<String, List<EligibilityRule>> byCourse = new HashMap<>();
+        Map<String, List<EligibilityRule>> byDepartment = new HashMap<>();
+        for (EligibilityRule rule : rules) {
+            (rule.getScope() == EligibilityRule.Scope.COURSE ? byCourse : byDepartment)
+                    .computeIfAbsent(rule.getTarget(), k -> new ArrayList<>()).add(rule);
+        }
+        return new Ruleset(byCourse, byDepartment);
+    }
+
+    // Specificity: course rule for the major > course rule for all > department rule for the major > for all
+    private static boolean evaluate(Ruleset rules, Student.Major major, String courseCode) {
+        EligibilityRule decisive = mostSpecific(rules.byCourse().get(courseCode), major);
+        if (decisive == null) {
+            decisive = mostSpecific(rules.byDepartment().get(departmentOf(courseCode)), major);
+        }
+        return decisive == null || decisive.getEffect() == EligibilityRule.Effect.ALLOW;
+    }
+
+    private static EligibilityRule mostSpecific(List<EligibilityRule> rules, Student.Major major) {
+        EligibilityRule best = null;
+        for (EligibilityRule rule : rules == null ? List.<EligibilityRule>of() : rules) {
+            if (rule.getMajor() != null && rule.getMajor() != major) {
+                continue;
+            }
+            boolean moreSpecific = best == null || (rule.getMajor() != null && best.getMajor() == null);
+            boolean equallySpecific = best != null && (rule.getMajor() == null) == (best.getMajor() == null);
+            if (moreSpecific || (equallySpecific && rule.getEffect() == EligibilityRule.Effect.DENY)) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    // The letters a course code starts with: ECE321 -> ECE. Also the department CourseSearch facets on
+    static String departmentOf(String courseCode) {
+        int end = 0;
+        while (end < courseCode.length() && Character.isLetter(courseCode.charAt(end))) {
+            end++;
+        }
+        return courseCode.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,5 @@
+package com.university.registration.service;
+
+// Published by EligibilityRules when rules are added or removed, inside the transaction that changed them
+public record EligibilityRulesChangedEvent() {
+}
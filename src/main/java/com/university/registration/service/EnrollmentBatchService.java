@@ -0,0 +1,220 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.BatchOperationSummary;
+import com.university.registration.dto.EnrollmentState;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Set-based approve/reject/grade for the admin queue, committed chunk by chunk
+@Service
+@RequiredArgsConstructor
+public class EnrollmentBatchService {
+
+    // Rows locked and updated per transaction
+    static final int CHUNK_SIZE = 500;
+
+    private static final String UPDATE_GRADE =
+            "update enrollments set grade = ?, passed = ?, version = version + 1 where id = ? and status = 'APPROVED' and version = ?";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final SeatReservationService seatReservationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BatchOperationSummary approve(Collection<Long> ids) {
+        return byIds("approve", ids, Enrollment.Status.APPROVED);
+    }
+
+    public BatchOperationSummary reject(Collection<Long> ids) {
+        return byIds("reject", ids, Enrollment.Status.REJECTED);
+    }
+
+    // Every pending enrollment matching the filter; null course/major means any
+    public BatchOperationSummary approveMatching(String courseCode, Student.Major major) {
+        return byFilter("approve", courseCode, major, Enrollment.Status.APPROVED);
+    }
+
+    public BatchOperationSummary rejectMatching(String courseCode, Student.Major major) {
+        return byFilter("reject", courseCode, major, Enrollment.Status.REJECTED);
+    }
+
+    private BatchOperationSummary byIds(String operation, Collection<Long> ids, Enrollment.Status to) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size()));
+            updated += transactionTemplate.execute(status ->
+                    apply(enrollmentRepository.lockByIdInAndStatus(chunk, Enrollment.Status.PENDING), to));
+        }
+        // Ids that were unknown or no longer pending are skipped
+        return new BatchOperationSummary(operation, distinct.size(), updated, List.of());
+    }
+
+    // The matching ids are collected before anything changes, so enrollments promoted off the waitlist
+    // during a reject run are not swept up by it
+    private BatchOperationSummary byFilter(String operation, String courseCode, Student.Major major, Enrollment.Status to) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> page;
+        do {
+            page = enrollmentRepository.findIdPage(Enrollment.Status.PENDING, courseCode, major,
+                    ids.isEmpty() ? 0L : ids.get(ids.size() - 1), Limit.of(CHUNK_SIZE));
+            ids.addAll(page);
+        } while (page.size() == CHUNK_SIZE);
+        return byIds(operation, ids, to);
+    }
+
+    // Runs inside the chunk transaction; the locked rows are all still pending
+    private int apply(List<Enrollment> locked, Enrollment.Status to) {
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        enrollmentRepository.transitionAll(locked.stream().map(Enrollment::getId).toList(), to);
+        locked.forEach(e -> publish(e, to));
+
+        if (to == Enrollment.Status.REJECTED) {
+            Map<String, Long> freed = locked.stream()
+                    .collect(Collectors.groupingBy(e -> e.getCourse().getCode(), Collectors.counting()));
+            freed.forEach((courseCode, seats) -> promoteFromWaitlist(courseCode, seats.intValue()));
+        }
+        entityManager.clear();
+        return locked.size();
+    }
+
+    // Freed seats go to the oldest waitlisted enrollments; any left over are released
+    private void promoteFromWaitlist(String courseCode, int seats) {
+        List<Enrollment> promoted = enrollmentRepository.lockByCourseCodeAndStatus(
+                courseCode, Enrollment.Status.WAITLISTED, Limit.of(seats));
+        if (!promoted.isEmpty()) {
+            enrollmentRepository.transitionAll(promoted.stream().map(Enrollment::getId).toList(), Enrollment.Status.PENDING);
+            promoted.forEach(e -> publish(e, Enrollment.Status.PENDING));
+        }
+        seatReservationService.leaveWaitlist(courseCode, promoted.size());
+        seatReservationService.releaseSeats(courseCode, seats - promoted.size());
+    }
+
+    // Expects "studentId,grade,passed" lines for approved enrollments in the course; a non-numeric first line is a header
+    public BatchOperationSummary importGrades(String courseCode, Reader csv) {
+        List<String> problems = new ArrayList<>();
+        List<GradeRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int requested = 0;
+        int updated = 0;
+        int row = 0;
+
+        try (BufferedReader reader = new BufferedReader(csv)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (row == 0 && !fields[0].trim().matches("\\d+")) {
+                    continue;
+                }
+                row++;
+                requested++;
+                GradeRow grade = GradeRow.parse(row, fields);
+                if (grade == null) {
+                    problems.add("Row " + row + ": malformed line: " + line);
+                    continue;
+                }
+                chunk.add(grade);
+                if (chunk.size() == CHUNK_SIZE) {
+                    updated += importChunk(courseCode, chunk, problems);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        updated += importChunk(courseCode, chunk, problems);
+        return new BatchOperationSummary("grade " + courseCode, requested, updated, problems);
+    }
+
+    private int importChunk(String courseCode, List<GradeRow> chunk, List<String> problems) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        return transactionTemplate.execute(status -> {
+            // Each update is guarded by the version read here, so the events know which grade they replaced
+            Map<Long, EnrollmentState> enrollments = new HashMap<>();
+            for (EnrollmentState state : enrollmentRepository.findStatesByCourseAndStudents(courseCode,
+                    Enrollment.Status.APPROVED, chunk.stream().map(GradeRow::studentId).collect(Collectors.toSet()))) {
+                enrollments.put(state.studentId(), state);
+            }
+
+            List<GradeRow> found = new ArrayList<>();
+            List<Object[]> args = new ArrayList<>();
+            for (GradeRow grade : chunk) {
+                EnrollmentState enrollment = enrollments.get(grade.studentId());
+                if (enrollment == null) {
+                    problems.add("Row " + grade.row() + ": student " + grade.studentId()
+                            + " has no approved enrollment in " + courseCode);
+                    continue;
+                }
+                found.add(grade);
+                args.add(new Object[]{grade.grade(), grade.passed(), enrollment.id(), enrollment.version()});
+            }
+
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_GRADE, args);
+            int updated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                GradeRow grade = found.get(i);
+                if (counts[i] == 0) {
+                    problems.add("Row " + grade.row() + ": enrollment of student " + grade.studentId()
+                            + " changed while importing");
+                    continue;
+                }
+                updated += counts[i] == Statement.SUCCESS_NO_INFO ? 1 : counts[i];
+                EnrollmentState before = enrollments.get(grade.studentId());
+                eventPublisher.publishEvent(EnrollmentChangedEvent.changed(before, new EnrollmentState(before.id(),
+                        before.studentId(), courseCode, Enrollment.Status.APPROVED, grade.grade(), grade.passed(),
+                        before.version() + 1)));
+            }
+            return updated;
+        });
+    }
+
+    private void publish(Enrollment enrollment, Enrollment.Status status) {
+        eventPublisher.publishEvent(EnrollmentChangedEvent.transitioned(enrollment, status));
+    }
+
+    private record GradeRow(int row, Long studentId, double grade, boolean passed) {
+
+        static GradeRow parse(int row, String[] fields) {
+            if (fields.length != 3 || !fields[0].trim().matches("\\d+")) {
+                return null;
+            }
+            String passed = fields[2].trim().toLowerCase(Locale.ROOT);
+            if (!passed.equals("true") && !passed.equals("false")) {
+                return null;
+            }
+            try {
+                double grade = Double.parseDouble(fields[1].trim());
+                if (grade < 0 || grade > 100) {
+                    return null;
+                }
+                return new GradeRow(row, Long.valueOf(fields[0].trim()), grade, Boolean.parseBoolean(passed));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
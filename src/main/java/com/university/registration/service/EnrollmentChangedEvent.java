@@ -0,0 +1,84 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.EnrollmentState;
+import com.university.registration.entity.Enrollment;
+
+// Published whenever an enrollment is created or its status or grade changes. previous is what the enrollment
+// was before the change, or null for a new one, so listeners can apply the change as a delta.
+public record EnrollmentChangedEvent(Long enrollmentId,
+                                     Long studentId,
+                                     String courseCode,
+                                     Enrollment.Status status,
+                                     Double grade,
+                                     boolean passed,
+                                     Outcome previous) {
+
+    public record Outcome(Enrollment.Status status, Double grade, boolean passed) {
+
+        static Outcome of(Enrollment enrollment) {
+            return new Outcome(enrollment.getStatus(), enrollment.getGrade(), Boolean.TRUE.equals(enrollment.getPassed()));
+        }
+
+        static Outcome of(EnrollmentState state) {
+            return new Outcome(state.status(), state.grade(), Boolean.TRUE.equals(state.passed()));
+        }
+    }
+
+    public static EnrollmentChangedEvent created(Enrollment enrollment) {
+        return new EnrollmentChangedEvent(
+                enrollment.getId(),
+                enrollment.getStudent().getId(),
+                enrollment.getCourse().getCode(),
+                enrollment.getStatus(),
+                enrollment.getGrade(),
+                Boolean.TRUE.equals(enrollment.getPassed()),
+                null
+        );
+    }
+
+    public static EnrollmentChangedEvent changed(EnrollmentState before, EnrollmentState after) {
+        return new EnrollmentChangedEvent(
+                after.id(),
+                after.studentId(),
+                after.courseCode(),
+                after.status(),
+                after.grade(),
+                Boolean.TRUE.equals(after.passed()),
+                Outcome.of(before)
+        );
+    }
+
+    // A status transition, which leaves the grade as it was
+    public static EnrollmentChangedEvent transitioned(Enrollment enrollment, Enrollment.Status to) {
+        return new EnrollmentChangedEvent(
+                enrollment.getId(),
+                enrollment.getStudent().getId(),
+                enrollment.getCourse().getCode(),
+                to,
+                enrollment.getGrade(),
+                Boolean.TRUE.equals(enrollment.getPassed()),
+                Outcome.of(enrollment)
+        );
+    }
+
+    public static EnrollmentChangedEvent transitioned(Enrollment.Status from, EnrollmentState after) {
+        return new EnrollmentChangedEvent(
+                after.id(),
+                after.studentId(),
+                after.courseCode(),
+                after.status(),
+                after.grade(),
+                Boolean.TRUE.equals(after.passed()),
+                new Outcome(from, after.grade(), Boolean.TRUE.equals(after.passed()))
+        );
+    }
+
+    public Outcome outcome() {
+        return new Outcome(status, grade, passed);
+    }
+
+    // A course counts towards prerequisites only once it is approved and passed
+    public boolean completed() {
+        return status == Enrollment.Status.APPROVED && passed;
+    }
+}
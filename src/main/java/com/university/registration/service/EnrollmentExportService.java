@@ -0,0 +1,148 @@
+package com.university.registration.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.registration.dto.EnrollmentExportRow;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Writes exports row by row as the cursor yields them, so memory use does not depend on the row count
+@Service
+@RequiredArgsConstructor
+public class EnrollmentExportService {
+
+    private static final String ENROLLMENT_HEADER =
+            "enrollmentId,studentId,studentName,major,courseCode,courseName,status,grade,passed";
+    // Same layout EnrollmentBatchService.importGrades reads, so a filled-in sheet can be imported as is
+    private static final String GRADE_SHEET_HEADER = "studentId,grade,passed";
+    private static final String CONFLICT_HEADER = "studentId,studentName,courseCode,conflictingCourseCode,day,time";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final Timetable timetable;
+
+    // Null filters mean any; returns the number of rows written
+    @Transactional(readOnly = true)
+    public long writeCsv(Enrollment.Status status, String courseCode, Student.Major major, OutputStream out)
+            throws IOException {
+        Writer writer = writer(out);
+        writer.write(ENROLLMENT_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        try (Stream<EnrollmentExportRow> stream = enrollmentRepository.streamForExport(status, courseCode, major)) {
+            for (Iterator<EnrollmentExportRow> it = stream.iterator(); it.hasNext(); rows++) {
+                EnrollmentExportRow row = it.next();
+                writer.write(row.enrollmentId() + "," + row.studentId() + "," + csv(row.studentName()) + ","
+                        + row.major() + "," + csv(row.courseCode()) + "," + csv(row.courseName()) + ","
+                        + row.status() + "," + (row.grade() == null ? "" : row.grade()) + "," + row.passed());
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public long writeJson(Enrollment.Status status, String courseCode, Student.Major major, OutputStream out)
+            throws IOException {
+        long rows = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+             Stream<EnrollmentExportRow> stream = enrollmentRepository.streamForExport(status, courseCode, major)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            for (Iterator<EnrollmentExportRow> it = stream.iterator(); it.hasNext(); rows++) {
+                json.writeObject(it.next());
+            }
+            json.writeEndArray();
+        }
+        return rows;
+    }
+
+    // Approved enrollments of the course, grades filled in where they exist
+    @Transactional(readOnly = true)
+    public long writeGradeSheet(String courseCode, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write(GRADE_SHEET_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        try (Stream<EnrollmentExportRow> stream =
+                     enrollmentRepository.streamForExport(Enrollment.Status.APPROVED, courseCode, null)) {
+            for (Iterator<EnrollmentExportRow> it = stream.iterator(); it.hasNext(); rows++) {
+                EnrollmentExportRow row = it.next();
+                writer.write(row.studentId() + "," + (row.grade() == null ? "" : row.grade()) + "," + row.passed());
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    // Every pair of courses on a student's timetable this term that meet at the same time, with the first slot
+    // they share. One pass over the cursor: each student's courses are checked as soon as the next student starts.
+    @Transactional(readOnly = true)
+    public long writeScheduleConflicts(OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write(CONFLICT_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        Long studentId = null;
+        String studentName = null;
+        List<String> courses = new ArrayList<>();
+        try (Stream<Object[]> stream = enrollmentRepository.streamScheduledCourses(Timetable.SCHEDULED)) {
+            for (Iterator<Object[]> it = stream.iterator(); it.hasNext(); ) {
+                Object[] row = it.next();
+                if (!row[0].equals(studentId)) {
+                    rows += writeClashes(writer, studentId, studentName, courses);
+                    studentId = (Long) row[0];
+                    studentName = (String) row[1];
+                    courses.clear();
+                }
+                courses.add((String) row[2]);
+            }
+        }
+        rows += writeClashes(writer, studentId, studentName, courses);
+        writer.flush();
+        return rows;
+    }
+
+    private long writeClashes(Writer writer, Long studentId, String studentName, List<String> courses)
+            throws IOException {
+        if (courses.size() < 2) {
+            return 0;
+        }
+        courses.sort(null);
+        List<Timetable.Clash> clashes = timetable.findClashes(courses);
+        for (Timetable.Clash clash : clashes) {
+            writer.write(studentId + "," + csv(studentName) + "," + csv(clash.course()) + ","
+                    + csv(clash.otherCourse()) + "," + clash.day() + "," + clash.time());
+            writer.write('\n');
+        }
+        return clashes.size();
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    // RFC 4180 quoting for free-text fields
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,272 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.entity.StudentSummary;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@RequiredArgsConstructor
+public class PrerequisiteGraph {
+
+    private static final int[] NO_PREREQUISITES = new int[0];
+    private static final long[] EMPTY_BITS = new long[0];
+    private static final int STUDENT_STRIPES = 64;
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final StudentSummaryRepository summaryRepository;
+
+    // Course codes are interned once and never renumbered, so cached student bitsets survive rebuilds
+    private final Map<String, Integer> courseIds = new ConcurrentHashMap<>();
+    private final Object internLock = new Object();
+    private volatile String[] courseCodes = new String[0];
+
+    // Indexed by course id; replaced wholesale so readers never see a half-built graph
+    private volatile int[][] prerequisites = new int[0][];
+    private volatile long[][] prerequisiteMasks = new long[0][];
+
+    // Student id -> bitset of course ids the student has passed (copy-on-write)
+    private final ConcurrentHashMap<Long, long[]> passedByStudent = new ConcurrentHashMap<>();
+
+    // Striped locks order cache loads against patches without holding a monitor across a JDBC call,
+    // which would pin virtual threads; the counters let a batch load detect patches it raced with
+    private final ReentrantLock[] studentLocks = new ReentrantLock[STUDENT_STRIPES];
+    private final AtomicLongArray stripeChanges = new AtomicLongArray(STUDENT_STRIPES);
+
+    {
+        Arrays.setAll(studentLocks, i -> new ReentrantLock());
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CourseCatalogChangedEvent.class})
+    public void rebuild() {
+        // Cached state is only ever seeded from the primary
+        for (String code : ReplicaRoutingDataSource.onPrimary(courseRepository::findAllCodes)) {
+            intern(code);
+        }
+
+        Map<Integer, List<Integer>> adjacency = new HashMap<>();
+        for (Object[] pair : ReplicaRoutingDataSource.onPrimary(courseRepository::findPrerequisitePairs)) {
+            int course = intern((String) pair[0]);
+            int prerequisite = intern((String) pair[1]);
+            adjacency.computeIfAbsent(course, k -> new ArrayList<>()).add(prerequisite);
+        }
+
+        // Sized under the lock: intern() may grow courseCodes from a lookup running alongside
+        synchronized (internLock) {
+            int size = courseCodes.length;
+            int[][] edges = new int[size][];
+            long[][] masks = new long[size][];
+            for (int course = 0; course < size; course++) {
+                edges[course] = toArray(adjacency.get(course));
+                masks[course] = toMask(edges[course]);
+            }
+            prerequisites = edges;
+            prerequisiteMasks = masks;
+        }
+    }
+
+    // Returns the first prerequisite of the course the student has not passed, if any
+    public Optional<String> findMissingPrerequisite(Long studentId, String courseCode) {
+        Integer course = courseIds.get(courseCode);
+        long[][] masks = prerequisiteMasks;
+        if (course == null || course >= masks.length || masks[course].length == 0) {
+            return Optional.empty();
+        }
+
+        long[] required = masks[course];
+        long[] passed = passedCourses(studentId);
+        for (int word = 0; word < required.length; word++) {
+            long missing = required[word] & ~(word < passed.length ? passed[word] : 0L);
+            if (missing != 0) {
+                return Optional.of(courseCodes[word * 64 + Long.numberOfTrailingZeros(missing)]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<String> getPrerequisiteCodes(String courseCode) {
+        Integer course = courseIds.get(courseCode);
+        int[][] edges = prerequisites;
+        if (course == null || course >= edges.length) {
+            return List.of();
+        }
+        String[] codes = courseCodes;
+        return Arrays.stream(edges[course]).mapToObj(id -> codes[id]).toList();
+    }
+
+    @TransactionalEventListener
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        recordResult(event.studentId(), event.courseCode(), event.completed());
+    }
+
+    // Summaries are updated just after the enrollment change commits; a student whose passed courses changed
+    // and who was loaded from the previous summary in between is reloaded
+    @EventListener
+    public void onSummariesChanged(StudentSummaryChangedEvent event) {
+        event.studentIds().forEach(this::evictStudent);
+    }
+
+    // Only students already cached are patched; others load their committed state on first use
+    public void recordResult(Long studentId, String courseCode, boolean completed) {
+        int course = intern(courseCode);
+        int stripe = stripe(studentId);
+        studentLocks[stripe].lock();
+        try {
+            stripeChanges.incrementAndGet(stripe);
+            passedByStudent.computeIfPresent(studentId, (id, bits) -> withBit(bits, course, completed));
+        } finally {
+            studentLocks[stripe].unlock();
+        }
+    }
+
+    // Loads the passed courses of every uncached student in one query, ahead of a bulk run
+    public void preload(Collection<Long> studentIds) {
+        List<Long> missing = studentIds.stream()
+                .filter(id -> !passedByStudent.containsKey(id))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long[] changesBefore = new long[STUDENT_STRIPES];
+        Arrays.setAll(changesBefore, stripeChanges::get);
+
+        Map<Long, long[]> loaded = new HashMap<>();
+        missing.forEach(id -> loaded.put(id, EMPTY_BITS));
+        Set<Long> unsummarized = new HashSet<>(missing);
+        for (StudentSummary summary : ReplicaRoutingDataSource.onPrimary(() -> summaryRepository.findAllById(missing))) {
+            unsummarized.remove(summary.getStudentId());
+            long[] bits = EMPTY_BITS;
+            for (String code : summary.getPassedCourseCodes()) {
+                bits = withBit(bits, intern(code), true);
+            }
+            loaded.put(summary.getStudentId(), bits);
+        }
+        if (!unsummarized.isEmpty()) {
+            for (Object[] row : ReplicaRoutingDataSource.onPrimary(() -> enrollmentRepository.findPassedCourseCodes(unsummarized))) {
+                loaded.computeIfPresent((Long) row[0], (id, bits) -> withBit(bits, intern((String) row[1]), true));
+            }
+        }
+
+        loaded.forEach((studentId, bits) -> {
+            int stripe = stripe(studentId);
+            studentLocks[stripe].lock();
+            try {
+                // A patch landed while we were querying: leave the student to load lazily instead
+                if (stripeChanges.get(stripe) == changesBefore[stripe]) {
+                    passedByStudent.putIfAbsent(studentId, bits);
+                }
+            } finally {
+                studentLocks[stripe].unlock();
+            }
+        });
+    }
+
+    public void evictStudent(Long studentId) {
+        int stripe = stripe(studentId);
+        studentLocks[stripe].lock();
+        try {
+            stripeChanges.incrementAndGet(stripe);
+            passedByStudent.remove(studentId);
+        } finally {
+            studentLocks[stripe].unlock();
+        }
+    }
+
+    private long[] passedCourses(Long studentId) {
+        long[] bits = passedByStudent.get(studentId);
+        if (bits != null) {
+            return bits;
+        }
+
+        int stripe = stripe(studentId);
+        studentLocks[stripe].lock();
+        try {
+            bits = passedByStudent.get(studentId);
+            if (bits == null) {
+                bits = EMPTY_BITS;
+                for (String code : ReplicaRoutingDataSource.onPrimary(() -> loadPassedCourses(studentId))) {
+                    bits = withBit(bits, intern(code), true);
+                }
+                passedByStudent.put(studentId, bits);
+            }
+            return bits;
+        } finally {
+            studentLocks[stripe].unlock();
+        }
+    }
+
+    // From the student's summary; straight from the enrollments if none has been written yet
+    private Collection<String> loadPassedCourses(Long studentId) {
+        return summaryRepository.findById(studentId)
+                .<Collection<String>>map(StudentSummary::getPassedCourseCodes)
+                .orElseGet(() -> enrollmentRepository.findPassedCourseCodes(studentId));
+    }
+
+    private static int stripe(Long studentId) {
+        return (int) Math.floorMod(studentId, (long) STUDENT_STRIPES);
+    }
+
+    private int intern(String code) {
+        Integer id = courseIds.get(code);
+        if (id != null) {
+            return id;
+        }
+        synchronized (internLock) {
+            id = courseIds.get(code);
+            if (id == null) {
+                String[] codes = Arrays.copyOf(courseCodes, courseCodes.length + 1);
+                id = codes.length - 1;
+                codes[id] = code;
+                courseCodes = codes;
+                courseIds.put(code, id);
+            }
+            return id;
+        }
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return NO_PREREQUISITES;
+        }
+        return ids.stream().mapToInt(Integer::intValue).distinct().toArray();
+    }
+
+    private static long[] toMask(int[] ids) {
+        long[] mask = EMPTY_BITS;
+        for (int id : ids) {
+            mask = withBit(mask, id, true);
+        }
+        return mask;
+    }
+
+    private static long[] withBit(long[] bits, int index, boolean value) {
+        int word = index >>> 6;
+        if (word >= bits.length) {
+            if (!value) {
+                return bits;
+            }
+            bits = Arrays.copyOf(bits, word + 1);
+        } else {
+            bits = bits.clone();
+        }
+        if (value) {
+            bits[word] |= 1L << index;
+        } else {
+            bits[word] &= ~(1L << index);
+        }
+        return bits;
+    }
+}
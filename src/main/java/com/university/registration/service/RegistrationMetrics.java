@@ -0,0 +1,64 @@
+package com.university.registration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// registration.requests: latency per outcome (ACCEPTED, WAITLISTED or the exception's simple name)
+// registration.course.requests: attempts per course, for per-course registration rates
+@Component
+@RequiredArgsConstructor
+public class RegistrationMetrics {
+
+    static final String ACCEPTED = "ACCEPTED";
+    static final String WAITLISTED = "WAITLISTED";
+    static final String ROLLED_BACK = "RolledBack";
+    // Codes that are not in the catalog share one tag, so bad input cannot blow up the series count
+    static final String UNKNOWN_COURSE = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final CourseCatalog courseCatalog;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    // Stopped when the surrounding transaction completes, so commit time is included; a success whose
+    // commit fails is recorded as rolled back
+    public void completed(Timer.Sample sample, String courseCode, String outcome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(sample, courseCode, outcome);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean success = ACCEPTED.equals(outcome) || WAITLISTED.equals(outcome);
+                record(sample, courseCode, success && status != STATUS_COMMITTED ? ROLLED_BACK : outcome);
+            }
+        });
+    }
+
+    private void record(Timer.Sample sample, String courseCode, String outcome) {
+        sample.stop(Timer.builder("registration.requests")
+                .description("Course registration latency, including commit")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        countCourseRequest(courseCode, ACCEPTED.equals(outcome) || WAITLISTED.equals(outcome));
+    }
+
+    // Also used for bulk rows, which have no per-row latency
+    public void countCourseRequest(String courseCode, boolean accepted) {
+        Counter.builder("registration.course.requests")
+                .description("Registration attempts per course")
+                .tag("course", courseCode != null && courseCatalog.contains(courseCode) ? courseCode : UNKNOWN_COURSE)
+                .tag("result", accepted ? "accepted" : "rejected")
+                .register(meterRegistry)
+                .increment();
+    }
+}
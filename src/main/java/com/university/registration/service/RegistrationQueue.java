@@ -0,0 +1,245 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.RegistrationRequest;
+import com.university.registration.dto.RegistrationResult;
+import com.university.registration.dto.RegistrationTicket;
+import com.university.registration.entity.Student;
+import com.university.registration.exception.CourseNotFoundException;
+import com.university.registration.exception.RegistrationQueueFullException;
+import com.university.registration.exception.WrongCourseMajorException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Asynchronous registrations: checked against the in-memory catalog and eligibility matrix, acknowledged
+// with a request id, then registered by a few workers that commit whatever has queued up as one bulk batch.
+// Each student's requests go to the same worker, so they are decided in the order they were submitted.
+@Slf4j
+@Service
+public class RegistrationQueue implements SmartLifecycle {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(2).toMillis();
+    static final String OUTCOME_EVENT = "registration";
+
+    private final BulkRegistrationService bulkRegistrationService;
+    private final CourseCatalog courseCatalog;
+    private final EligibilityRules eligibilityRules;
+    private final int workers;
+    private final int batchSize;
+    private final Duration retention;
+
+    // One queue per worker
+    private final List<BlockingQueue<Pending>> queues;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final DistributionSummary batchSizes;
+
+    public RegistrationQueue(BulkRegistrationService bulkRegistrationService,
+                             CourseCatalog courseCatalog,
+                             EligibilityRules eligibilityRules,
+                             @Value("${registration.async.workers:2}") int workers,
+                             @Value("${registration.async.batch-size:200}") int batchSize,
+                             @Value("${registration.async.queue-capacity:10000}") int queueCapacity,
+                             @Value("${registration.async.retention:10m}") Duration retention,
+                             MeterRegistry meterRegistry) {
+        this.bulkRegistrationService = bulkRegistrationService;
+        this.courseCatalog = courseCatalog;
+        this.eligibilityRules = eligibilityRules;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.queues = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workers)));
+        }
+
+        Gauge.builder("registration.async.queue.depth", queues, q -> q.stream().mapToInt(Collection::size).sum())
+                .description("Registrations accepted but not yet processed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("registration.async.batch.size")
+                .description("Registrations committed per worker batch")
+                .register(meterRegistry);
+    }
+
+    // One queued registration; the emitters are whoever is waiting for its outcome over SSE
+    private static final class Pending {
+        final String requestId;
+        final Long studentId;
+        final String courseCode;
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        volatile RegistrationTicket ticket;
+        volatile long completedAt;
+
+        Pending(String requestId, Long studentId, String courseCode) {
+            this.requestId = requestId;
+            this.studentId = studentId;
+            this.courseCode = courseCode;
+            this.ticket = RegistrationTicket.queued(requestId, courseCode);
+        }
+    }
+
+    // Rejects what can be answered from memory right away; everything else is decided by a worker
+    public RegistrationTicket submit(Long studentId, Student.Major major, String courseCode) {
+        if (!courseCatalog.contains(courseCode)) {
+            throw new CourseNotFoundException("Course not found with code: " + courseCode);
+        }
+        if (!eligibilityRules.isAllowed(major, courseCode)) {
+            throw new WrongCourseMajorException("Course " + courseCode + " not available for " + major);
+        }
+
+        Pending request = new Pending(UUID.randomUUID().toString(), studentId, courseCode);
+        pending.put(request.requestId, request);
+        if (!running || !queues.get((int) Math.floorMod(studentId, (long) workers)).offer(request)) {
+            pending.remove(request.requestId);
+            throw new RegistrationQueueFullException("Registration is busy; please try again shortly");
+        }
+        return request.ticket;
+    }
+
+    // Only the student who submitted the request can see it
+    public Optional<RegistrationTicket> getTicket(Long studentId, String requestId) {
+        return find(studentId, requestId).map(request -> request.ticket);
+    }
+
+    // Sends the outcome as a single "registration" event, straight away if it is already known
+    public Optional<SseEmitter> subscribe(Long studentId, String requestId) {
+        return find(studentId, requestId).map(request -> {
+            SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+            emitter.onCompletion(() -> request.emitters.remove(emitter));
+            emitter.onTimeout(() -> request.emitters.remove(emitter));
+            request.emitters.add(emitter);
+            // Whoever removes the emitter first sends to it, so the outcome is sent exactly once
+            if (request.ticket.isFinal() && request.emitters.remove(emitter)) {
+                send(emitter, request.ticket);
+            }
+            return emitter;
+        });
+    }
+
+    private Optional<Pending> find(Long studentId, String requestId) {
+        return Optional.ofNullable(pending.get(requestId)).filter(request -> request.studentId.equals(studentId));
+    }
+
+    // Keeps going after stop() until the queue is empty
+    private void work(BlockingQueue<Pending> queue) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // No lingering: a burst batches itself, a lone request goes out on its own
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        List<RegistrationRequest> requests = batch.stream()
+                .map(request -> new RegistrationRequest(request.studentId, request.courseCode))
+                .toList();
+        List<RegistrationResult> results;
+        try {
+            results = bulkRegistrationService.registerAll(requests).results();
+        } catch (RuntimeException e) {
+            log.error("Registration batch of {} failed", batch.size(), e);
+            results = requests.stream()
+                    .map(r -> RegistrationResult.rejected(0, r.studentId(), r.courseCode(),
+                            "Registration could not be completed; please try again"))
+                    .toList();
+        }
+        // Results come back in request order
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), RegistrationTicket.of(batch.get(i).requestId, results.get(i)));
+        }
+    }
+
+    private void complete(Pending request, RegistrationTicket ticket) {
+        request.ticket = ticket;
+        request.completedAt = System.nanoTime();
+        for (SseEmitter emitter : request.emitters) {
+            if (request.emitters.remove(emitter)) {
+                send(emitter, ticket);
+            }
+        }
+    }
+
+    private static void send(SseEmitter emitter, RegistrationTicket ticket) {
+        try {
+            emitter.send(SseEmitter.event().name(OUTCOME_EVENT).data(ticket, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; it can still poll
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Outcomes stay available for polling for registration.async.retention
+    @Scheduled(fixedDelay = 60_000)
+    public void expireOutcomes() {
+        long cutoff = System.nanoTime() - retention.toNanos();
+        pending.values().removeIf(request -> request.ticket.isFinal() && request.completedAt - cutoff < 0);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Pending> queue = queues.get(i);
+            workerThreads.add(Thread.ofPlatform().name("registration-worker-" + i).daemon().start(() -> work(queue)));
+        }
+    }
+
+    @Override
+    public void stop() {
+        // Workers are not interrupted, so a batch is never cut off mid-transaction
+        running = false;
+        for (Thread worker : workerThreads) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Started before and stopped after the web server, so every accepted request is still processed
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
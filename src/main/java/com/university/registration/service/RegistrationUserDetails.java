@@ -0,0 +1,36 @@
+package com.university.registration.service;
+
+import com.university.registration.entity.Student;
+import com.university.registration.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Authenticated principal; carries what controllers need so they don't look the user up again per request.
+// Resolved at login and kept in the session, so changes to the user show up on the next login.
+@Getter
+public class RegistrationUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Long userId;
+    private final User.Role role;
+    // Null for admins
+    private final StudentProfile student;
+
+    public record StudentProfile(Long id, String name, Student.Major major) implements Serializable {
+    }
+
+    public RegistrationUserDetails(User user) {
+        super(user.getUsername(), user.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        this.userId = user.getId();
+        this.role = user.getRole();
+        Student s = user.getStudent();
+        this.student = s == null ? null : new StudentProfile(s.getId(), s.getName(), s.getMajor());
+    }
+
+    public Long getStudentId() {
+        return student == null ? null : student.id();
+    }
+}
@@ -0,0 +1,208 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.dto.CourseOverview;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.exception.CourseFullException;
+import com.university.registration.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-memory seat counters per course, so capacity is enforced without locking course rows. Instances sharing a
+// database count in the database instead (SharedSeatCounters), since each would otherwise fill the course.
+@Service
+@RequiredArgsConstructor
+public class SeatReservationService {
+
+    public enum Reservation {
+        SEAT,
+        WAITLIST
+    }
+
+    // Statuses that occupy a seat
+    static final Set<Enrollment.Status> SEATED = EnumSet.of(Enrollment.Status.PENDING, Enrollment.Status.APPROVED);
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseCatalog courseCatalog;
+
+    @Value("${registration.seats.waitlist-limit:200}")
+    private int waitlistLimit;
+
+    // Present when registration.cluster.enabled is set
+    @Autowired(required = false)
+    private SharedSeatCounters sharedSeats;
+
+    private final ConcurrentHashMap<String, CourseSeats> seats = new ConcurrentHashMap<>();
+
+    static final class CourseSeats {
+        final AtomicInteger taken;
+        final AtomicInteger waitlisted;
+        // Reservations whose transaction has not completed yet
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        CourseSeats(int taken, int waitlisted) {
+            this.taken = new AtomicInteger(taken);
+            this.waitlisted = new AtomicInteger(waitlisted);
+        }
+
+        static boolean tryIncrement(AtomicInteger counter, Integer limit) {
+            while (true) {
+                int current = counter.get();
+                if (limit != null && current >= limit) {
+                    return false;
+                }
+                if (counter.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    // Takes a seat, or a waitlist place when the course is full; given back if the transaction rolls back
+    public Reservation reserve(String courseCode) {
+        Integer capacity = courseCatalog.findCourse(courseCode).map(CourseOverview::capacity).orElse(null);
+        if (sharedSeats != null) {
+            return sharedSeats.reserve(courseCode, capacity, waitlistLimit);
+        }
+
+        CourseSeats course = seatsFor(courseCode);
+
+        if (CourseSeats.tryIncrement(course.taken, capacity)) {
+            track(course, course.taken);
+            return Reservation.SEAT;
+        }
+        if (CourseSeats.tryIncrement(course.waitlisted, waitlistLimit)) {
+            track(course, course.waitlisted);
+            return Reservation.WAITLIST;
+        }
+        throw new CourseFullException("Course " + courseCode + " is full and its waitlist is closed");
+    }
+
+    // A seated enrollment was rejected and nobody was promoted into its seat
+    public void releaseSeat(String courseCode) {
+        releaseSeats(courseCode, 1);
+    }
+
+    public void releaseSeats(String courseCode, int count) {
+        if (count > 0 && sharedSeats != null) {
+            sharedSeats.release(courseCode, count, 0);
+        } else if (count > 0) {
+            CourseSeats course = seatsFor(courseCode);
+            afterCommit(() -> course.taken.addAndGet(-count));
+        }
+    }
+
+    // A waitlisted enrollment was rejected, or promoted into a freed seat
+    public void leaveWaitlist(String courseCode) {
+        leaveWaitlist(courseCode, 1);
+    }
+
+    public void leaveWaitlist(String courseCode, int count) {
+        if (count > 0 && sharedSeats != null) {
+            sharedSeats.release(courseCode, 0, count);
+        } else if (count > 0) {
+            CourseSeats course = seatsFor(courseCode);
+            afterCommit(() -> course.waitlisted.addAndGet(-count));
+        }
+    }
+
+    public int getTakenSeats(String courseCode) {
+        return sharedSeats != null ? sharedSeats.getTakenSeats(courseCode) : seatsFor(courseCode).taken.get();
+    }
+
+    public int getWaitlisted(String courseCode) {
+        return sharedSeats != null ? sharedSeats.getWaitlisted(courseCode) : seatsFor(courseCode).waitlisted.get();
+    }
+
+    // Corrects drift against the database (e.g. manual edits) for courses with no registrations in flight.
+    // A counter is only overwritten if it did not move while the counts were being read.
+    @Scheduled(fixedDelayString = "${registration.seats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (sharedSeats != null) {
+            sharedSeats.reconcile();
+            return;
+        }
+        Map<String, int[]> before = new HashMap<>();
+        seats.forEach((code, course) -> {
+            if (course.inFlight.get() == 0) {
+                before.put(code, new int[]{course.taken.get(), course.waitlisted.get()});
+            }
+        });
+        if (before.isEmpty()) {
+            return;
+        }
+
+        Map<String, int[]> counted = new HashMap<>();
+        for (Object[] row : ReplicaRoutingDataSource.onPrimary(enrollmentRepository::countByCourseAndStatus)) {
+            int[] counts = counted.computeIfAbsent((String) row[0], k -> new int[2]);
+            Enrollment.Status status = (Enrollment.Status) row[1];
+            int count = ((Long) row[2]).intValue();
+            if (SEATED.contains(status)) {
+                counts[0] += count;
+            } else if (status == Enrollment.Status.WAITLISTED) {
+                counts[1] += count;
+            }
+        }
+
+        before.forEach((code, previous) -> {
+            CourseSeats course = seats.get(code);
+            int[] actual = counted.getOrDefault(code, new int[2]);
+            if (course != null && course.inFlight.get() == 0) {
+                course.taken.compareAndSet(previous[0], actual[0]);
+                course.waitlisted.compareAndSet(previous[1], actual[1]);
+            }
+        });
+    }
+
+    private CourseSeats seatsFor(String courseCode) {
+        CourseSeats course = seats.get(courseCode);
+        if (course != null) {
+            return course;
+        }
+        // Counted outside computeIfAbsent so no map bin is locked across the queries;
+        // no reservation can have used a counter that was never published
+        CourseSeats loaded = ReplicaRoutingDataSource.onPrimary(() -> new CourseSeats(
+                (int) enrollmentRepository.countByCourseCodeAndStatusIn(courseCode, SEATED),
+                (int) enrollmentRepository.countByCourseCodeAndStatusIn(courseCode, EnumSet.of(Enrollment.Status.WAITLISTED))));
+        CourseSeats existing = seats.putIfAbsent(courseCode, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void track(CourseSeats course, AtomicInteger counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        course.inFlight.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.decrementAndGet();
+                }
+                course.inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
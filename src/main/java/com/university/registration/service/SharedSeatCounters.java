@@ -0,0 +1,130 @@
+package com.university.registration.service;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.exception.CourseFullException;
+import com.university.registration.repository.EnrollmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Seat counters in the course_seats table, for instances sharing one database: in-memory counters would let
+// every instance fill the course. A place is taken with a conditional update in the registering transaction, so
+// the row lock orders registrations for a course across instances and a rollback gives the place back.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "registration.cluster.enabled", havingValue = "true")
+public class SharedSeatCounters {
+
+    private static final String TAKE_SEAT = "update course_seats set taken = taken + 1 where course_code = ?";
+    private static final String TAKE_LIMITED_SEAT = TAKE_SEAT + " and taken < ?";
+    private static final String JOIN_WAITLIST =
+            "update course_seats set waitlisted = waitlisted + 1 where course_code = ? and waitlisted < ?";
+    private static final String RELEASE =
+            "update course_seats set taken = taken - ?, waitlisted = waitlisted - ? where course_code = ?";
+
+    private static final Set<Enrollment.Status> WAITLISTED = EnumSet.of(Enrollment.Status.WAITLISTED);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final EnrollmentRepository enrollmentRepository;
+
+    // Courses known to have a row; rows are never deleted
+    private final Set<String> counted = ConcurrentHashMap.newKeySet();
+
+    public SharedSeatCounters(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EnrollmentRepository enrollmentRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    SeatReservationService.Reservation reserve(String courseCode, Integer capacity, int waitlistLimit) {
+        ensureCounted(courseCode);
+        int seated = capacity == null
+                ? jdbcTemplate.update(TAKE_SEAT, courseCode)
+                : jdbcTemplate.update(TAKE_LIMITED_SEAT, courseCode, capacity);
+        if (seated == 1) {
+            return SeatReservationService.Reservation.SEAT;
+        }
+        if (jdbcTemplate.update(JOIN_WAITLIST, courseCode, waitlistLimit) == 1) {
+            return SeatReservationService.Reservation.WAITLIST;
+        }
+        throw new CourseFullException("Course " + courseCode + " is full and its waitlist is closed");
+    }
+
+    // In the caller's transaction, like the reservations
+    void release(String courseCode, int seats, int waitlisted) {
+        ensureCounted(courseCode);
+        jdbcTemplate.update(RELEASE, seats, waitlisted, courseCode);
+    }
+
+    int getTakenSeats(String courseCode) {
+        ensureCounted(courseCode);
+        return jdbcTemplate.queryForObject(
+                "select taken from course_seats where course_code = ?", Integer.class, courseCode);
+    }
+
+    int getWaitlisted(String courseCode) {
+        ensureCounted(courseCode);
+        return jdbcTemplate.queryForObject(
+                "select waitlisted from course_seats where course_code = ?", Integer.class, courseCode);
+    }
+
+    // Recounts each course under its row lock, which waits for registrations in flight and holds off new ones
+    void reconcile() {
+        List<String> courses = jdbcTemplate.queryForList("select course_code from course_seats", String.class);
+        for (String courseCode : courses) {
+            try {
+                newTransaction.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject("select taken from course_seats where course_code = ? for update",
+                            Integer.class, courseCode);
+                    int[] actual = count(courseCode);
+                    jdbcTemplate.update("update course_seats set taken = ?, waitlisted = ? where course_code = ?",
+                            actual[0], actual[1], courseCode);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not reconcile the seat counters of {}", courseCode, e);
+            }
+        }
+    }
+
+    // Created from the committed enrollments in a transaction of its own. Before the row exists no instance
+    // can have reserved anything through it; if another instance creates it first, theirs is kept.
+    private void ensureCounted(String courseCode) {
+        if (counted.contains(courseCode)) {
+            return;
+        }
+        newTransaction.executeWithoutResult(status -> {
+            Integer rows = jdbcTemplate.queryForObject("select count(*) from course_seats where course_code = ?",
+                    Integer.class, courseCode);
+            if (rows == 0) {
+                int[] actual = count(courseCode);
+                try {
+                    jdbcTemplate.update("insert into course_seats (course_code, taken, waitlisted) values (?, ?, ?)",
+                            courseCode, actual[0], actual[1]);
+                } catch (DuplicateKeyException e) {
+                    // Created by another instance in the meantime
+                }
+            }
+        });
+        counted.add(courseCode);
+    }
+
+    private int[] count(String courseCode) {
+        return new int[]{
+                (int) enrollmentRepository.countByCourseCodeAndStatusIn(courseCode, SeatReservationService.SEATED),
+                (int) enrollmentRepository.countByCourseCodeAndStatusIn(courseCode, WAITLISTED)};
+    }
+}
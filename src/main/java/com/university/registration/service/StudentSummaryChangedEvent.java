@@ -0,0 +1,7 @@
+package com.university.registration.service;
+
+import java.util.Collection;
+
+// Published by StudentSummaryService once summaries with changed passed courses have committed
+public record StudentSummaryChangedEvent(Collection<Long> studentIds) {
+}
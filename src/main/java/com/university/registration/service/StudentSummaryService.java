@@ -0,0 +1,334 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.BatchOperationSummary;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.StudentSummary;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import com.university.registration.repository.StudentSummaryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+// Keeps student_summaries in step with enrollments. The changes an enrollment transaction made are applied
+// to their students' summaries as deltas once it commits, in a transaction of their own; rebuildAll()
+// recomputes everyone from their enrollments.
+@Slf4j
+@Service
+public class StudentSummaryService {
+
+    // Students refreshed per transaction by rebuildAll()
+    static final int REBUILD_CHUNK = 1000;
+    // A refresh that races another one inserting the same new summary row is retried once
+    private static final int REFRESH_ATTEMPTS = 2;
+
+    private final StudentSummaryRepository summaryRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    // Updates run after the triggering transaction has committed, so they always need a new one
+    private final TransactionTemplate refreshTransaction;
+
+    public StudentSummaryService(StudentSummaryRepository summaryRepository,
+                                 EnrollmentRepository enrollmentRepository,
+                                 StudentRepository studentRepository,
+                                 CourseRepository courseRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // The stored summary, or one computed on the spot for a student no refresh has reached yet
+    @Transactional(readOnly = true)
+    public StudentSummary getSummary(Long studentId) {
+        return summaryRepository.findById(studentId).orElseGet(() -> {
+            StudentSummary summary = new StudentSummary(studentId);
+            summarize(Map.of(studentId, summary));
+            return summary;
+        });
+    }
+
+    // Collects every change made in the current transaction
+    @EventListener
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAfterCommit(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<EnrollmentChangedEvent> changed =
+                (List<EnrollmentChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            List<EnrollmentChangedEvent> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAfterCommit(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StudentSummaryService.this);
+                }
+            });
+            changed = changes;
+        }
+        changed.add(event);
+    }
+
+    // The change itself has committed; a summary a failed update missed is repaired by rebuildAll()
+    private void applyAfterCommit(List<EnrollmentChangedEvent> changes) {
+        try {
+            apply(changes);
+        } catch (RuntimeException e) {
+            log.warn("Could not update the summaries of students {}", studentIds(changes), e);
+        }
+    }
+
+    // Applies committed enrollment changes to their students' summaries. Changes that leave every stored
+    // figure as it was are dropped, and only students whose passed courses moved are announced.
+    public void apply(List<EnrollmentChangedEvent> changes) {
+        List<EnrollmentChangedEvent> effective = changes.stream()
+                .filter(change -> change.studentId() != null)
+                .filter(change -> !Contribution.of(change.previous()).equals(Contribution.of(change.outcome())))
+                .toList();
+        if (effective.isEmpty()) {
+            return;
+        }
+        Set<Long> passedChanged;
+        try {
+            passedChanged = refreshTransaction.execute(status -> applyDeltas(effective));
+        } catch (DataIntegrityViolationException e) {
+            // Another update created a missing row first and may already have counted these changes
+            refresh(studentIds(effective));
+            return;
+        }
+        if (!passedChanged.isEmpty()) {
+            eventPublisher.publishEvent(new StudentSummaryChangedEvent(List.copyOf(passedChanged)));
+        }
+    }
+
+    // Rows are locked before they change so concurrent deltas add up. A student without a row yet gets one
+    // computed from the enrollments, which already include these changes.
+    private Set<Long> applyDeltas(List<EnrollmentChangedEvent> changes) {
+        List<Long> ids = studentIds(changes);
+        Map<Long, StudentSummary> summaries = new HashMap<>();
+        summaryRepository.lockAllById(ids).forEach(summary -> summaries.put(summary.getStudentId(), summary));
+        Map<Long, StudentSummary> created = new HashMap<>();
+        for (Long id : ids) {
+            if (!summaries.containsKey(id)) {
+                StudentSummary summary = new StudentSummary(id);
+                entityManager.persist(summary);
+                created.put(id, summary);
+            }
+        }
+        if (!created.isEmpty()) {
+            summarize(created);
+        }
+
+        Set<Long> passedChanged = new TreeSet<>();
+        created.values().stream()
+                .filter(summary -> !summary.getPassedCourseCodes().isEmpty())
+                .forEach(summary -> passedChanged.add(summary.getStudentId()));
+        Map<String, Integer> credits = credits(changes);
+        for (EnrollmentChangedEvent change : changes) {
+            StudentSummary summary = summaries.get(change.studentId());
+            if (summary == null) {
+                continue;
+            }
+            Contribution before = Contribution.of(change.previous());
+            Contribution after = Contribution.of(change.outcome());
+            int courseCredits = credits.getOrDefault(change.courseCode(), 0);
+            before.addTo(summary, courseCredits, -1);
+            after.addTo(summary, courseCredits, 1);
+            if (before.passed() != after.passed()) {
+                Set<String> codes = new HashSet<>(summary.getPassedCourseCodes());
+                if (after.passed()) {
+                    codes.add(change.courseCode());
+                } else {
+                    codes.remove(change.courseCode());
+                }
+                summary.setPassedCourseCodes(codes);
+                passedChanged.add(change.studentId());
+            }
+        }
+        return passedChanged;
+    }
+
+    // Course credits, looked up only for changes that touch graded or earned credits
+    private Map<String, Integer> credits(List<EnrollmentChangedEvent> changes) {
+        Set<String> codes = new HashSet<>();
+        for (EnrollmentChangedEvent change : changes) {
+            if (Contribution.of(change.previous()).weighted() || Contribution.of(change.outcome()).weighted()) {
+                codes.add(change.courseCode());
+            }
+        }
+        Map<String, Integer> credits = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (Object[] row : courseRepository.findCredits(codes)) {
+                credits.put((String) row[0], (Integer) row[1]);
+            }
+        }
+        return credits;
+    }
+
+    private static List<Long> studentIds(List<EnrollmentChangedEvent> changes) {
+        return changes.stream().map(EnrollmentChangedEvent::studentId)
+                .filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    // Recomputes the students' summaries from their enrollments
+    public void refresh(Collection<Long> studentIds) {
+        List<Long> ids = studentIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                refreshTransaction.executeWithoutResult(status -> recompute(ids));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == REFRESH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        eventPublisher.publishEvent(new StudentSummaryChangedEvent(ids));
+    }
+
+    // The rows are locked before the enrollments are read, so a refresh that waited for a concurrent one
+    // sees everything that one saw
+    private void recompute(List<Long> ids) {
+        Map<Long, StudentSummary> summaries = new HashMap<>();
+        summaryRepository.lockAllById(ids).forEach(summary -> summaries.put(summary.getStudentId(), summary));
+        for (Long id : ids) {
+            if (!summaries.containsKey(id)) {
+                StudentSummary created = new StudentSummary(id);
+                entityManager.persist(created);
+                summaries.put(id, created);
+            }
+        }
+        summarize(summaries);
+    }
+
+    // Fills the given summaries from their students' enrollments with one query
+    private void summarize(Map<Long, StudentSummary> summaries) {
+        Map<Long, Set<String>> passed = new HashMap<>();
+        summaries.values().forEach(summary -> {
+            summary.setEarnedCredits(0);
+            summary.setGradedCredits(0);
+            summary.setQualityPoints(0);
+            summary.setPendingRequests(0);
+            passed.put(summary.getStudentId(), new HashSet<>());
+        });
+
+        for (Object[] row : enrollmentRepository.findSummaryRows(summaries.keySet())) {
+            StudentSummary summary = summaries.get((Long) row[0]);
+            int credits = (Integer) row[2];
+            Enrollment.Status status = (Enrollment.Status) row[3];
+            Contribution contribution = Contribution.of(status, (Double) row[4], Boolean.TRUE.equals(row[5]));
+            contribution.addTo(summary, credits, 1);
+            if (contribution.passed()) {
+                passed.get(summary.getStudentId()).add((String) row[1]);
+            }
+        }
+        summaries.values().forEach(summary -> summary.setPassedCourseCodes(passed.get(summary.getStudentId())));
+    }
+
+    // Recomputes every student's summary, a chunk of students per transaction. A change committed while a
+    // chunk is recomputed can be counted twice, so this is meant for quiet periods.
+    public BatchOperationSummary rebuildAll() {
+        long start = System.nanoTime();
+        int rebuilt = 0;
+        List<Long> page;
+        Long after = 0L;
+        do {
+            page = studentRepository.findIdsAfter(after, Limit.of(REBUILD_CHUNK));
+            if (page.isEmpty()) {
+                break;
+            }
+            refresh(page);
+            rebuilt += page.size();
+            after = page.get(page.size() - 1);
+        } while (page.size() == REBUILD_CHUNK);
+
+        log.info("Rebuilt {} student summaries in {} ms", rebuilt, (System.nanoTime() - start) / 1_000_000);
+        return new BatchOperationSummary("rebuild summaries", rebuilt, rebuilt, List.of());
+    }
+
+    // First start on a database that predates the summaries (or was seeded directly)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (summaryRepository.count() == 0 && studentRepository.count() > 0) {
+            rebuildAll();
+        }
+    }
+
+    // Off unless registration.summaries.rebuild-cron is set
+    @Scheduled(cron = "${registration.summaries.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    // What one enrollment adds to its student's summary
+    private record Contribution(boolean pending, Double grade, boolean passed) {
+
+        static Contribution of(Enrollment.Status status, Double grade, boolean passed) {
+            boolean approved = status == Enrollment.Status.APPROVED;
+            return new Contribution(status == Enrollment.Status.PENDING || status == Enrollment.Status.WAITLISTED,
+                    approved ? grade : null, approved && passed);
+        }
+
+        static Contribution of(EnrollmentChangedEvent.Outcome outcome) {
+            return outcome == null
+                    ? new Contribution(false, null, false)
+                    : of(outcome.status(), outcome.grade(), outcome.passed());
+        }
+
+        // Whether the course's credits are needed to add it
+        boolean weighted() {
+            return grade != null || passed;
+        }
+
+        // sign -1 takes the contribution back out; the passed course codes are left to the caller
+        void addTo(StudentSummary summary, int credits, int sign) {
+            if (pending) {
+                summary.setPendingRequests(summary.getPendingRequests() + sign);
+            }
+            if (grade != null) {
+                summary.setGradedCredits(summary.getGradedCredits() + sign * credits);
+                summary.setQualityPoints(
+                        summary.getQualityPoints() + sign * credits * StudentSummary.gradePoints(grade));
+            }
+            if (passed) {
+                summary.setEarnedCredits(summary.getEarnedCredits() + sign * credits);
+            }
+        }
+    }
+}
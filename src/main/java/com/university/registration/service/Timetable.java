@@ -0,0 +1,288 @@
+package com.university.registration.service;
+
+import com.university.registration.config.ReplicaRoutingDataSource;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+// The week as a grid of 5-minute slots, Monday 00:00 to Sunday 24:00, one bit each. Every course has the mask
+// of its meetings; every cached student the courses on their timetable and the union of those masks, so checking
+// a registration is a few dozen word ANDs and no query. Meetings are rounded outwards to the grid.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Timetable {
+
+    static final int SLOT_MINUTES = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    // Pending and approved places hold their time; waitlisted ones only once promoted to pending
+    static final Set<Enrollment.Status> SCHEDULED = EnumSet.of(Enrollment.Status.PENDING, Enrollment.Status.APPROVED);
+
+    private static final String[] NO_COURSES = new String[0];
+    private static final int STUDENT_STRIPES = 64;
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    // Course code -> week mask, only for courses that meet; replaced wholesale on every rebuild
+    private volatile Map<String, long[]> courseWeeks = Map.of();
+
+    // The week is derived from the course masks it was built with and recomputed when those are replaced
+    private record Schedule(String[] courses, long[] week, Map<String, long[]> builtFrom) {
+
+        static Schedule of(String[] courses, Map<String, long[]> courseWeeks) {
+            long[] week = new long[WORDS];
+            for (String course : courses) {
+                long[] mask = courseWeeks.get(course);
+                if (mask != null) {
+                    for (int word = 0; word < WORDS; word++) {
+                        week[word] |= mask[word];
+                    }
+                }
+            }
+            return new Schedule(courses, week, courseWeeks);
+        }
+
+        Schedule with(String course, Map<String, long[]> courseWeeks) {
+            if (Arrays.asList(courses).contains(course)) {
+                return this;
+            }
+            String[] next = Arrays.copyOf(courses, courses.length + 1);
+            next[courses.length] = course;
+            return of(next, courseWeeks);
+        }
+
+        Schedule without(String course, Map<String, long[]> courseWeeks) {
+            if (!Arrays.asList(courses).contains(course)) {
+                return this;
+            }
+            return of(Arrays.stream(courses).filter(c -> !c.equals(course)).toArray(String[]::new), courseWeeks);
+        }
+    }
+
+    // The first slot two courses share
+    public record Clash(String course, String otherCourse, DayOfWeek day, LocalTime time) {
+    }
+
+    // Student id -> courses on their timetable (copy-on-write)
+    private final ConcurrentHashMap<Long, Schedule> schedules = new ConcurrentHashMap<>();
+
+    // Same scheme as PrerequisiteGraph: loads and patches are ordered by striped locks, and the counters let
+    // a batch load detect patches it raced with
+    private final ReentrantLock[] studentLocks = new ReentrantLock[STUDENT_STRIPES];
+    private final AtomicLongArray stripeChanges = new AtomicLongArray(STUDENT_STRIPES);
+
+    {
+        Arrays.setAll(studentLocks, i -> new ReentrantLock());
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CourseCatalogChangedEvent.class})
+    public void rebuild() {
+        Map<String, long[]> weeks = new HashMap<>();
+        for (Object[] row : ReplicaRoutingDataSource.onPrimary(courseRepository::findMeetingRows)) {
+            String course = (String) row[0];
+            DayOfWeek day = (DayOfWeek) row[1];
+            LocalTime start = (LocalTime) row[2];
+            LocalTime end = (LocalTime) row[3];
+            if (!end.isAfter(start)) {
+                log.warn("Ignoring meeting of {} on {} that ends at {} before it starts at {}", course, day, end, start);
+                continue;
+            }
+            int base = (day.getValue() - 1) * SLOTS_PER_DAY;
+            int from = base + start.toSecondOfDay() / 60 / SLOT_MINUTES;
+            int to = base + (end.toSecondOfDay() / 60 + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            setRange(weeks.computeIfAbsent(course, c -> new long[WORDS]), from, to);
+        }
+        // Cached schedules notice the new masks on their next check
+        courseWeeks = weeks;
+    }
+
+    // Returns a course on the student's timetable, or among alsoTaking, that meets at the same time as the
+    // given one. Places taken concurrently in uncommitted transactions are not seen; the term report catches
+    // the rare clash that slips through that way.
+    public Optional<String> findConflict(Long studentId, String courseCode, Collection<String> alsoTaking) {
+        Map<String, long[]> weeks = courseWeeks;
+        long[] wanted = weeks.get(courseCode);
+        if (wanted == null) {
+            return Optional.empty();
+        }
+        Schedule schedule = schedule(studentId, weeks);
+        if (overlaps(schedule.week(), wanted) || !alsoTaking.isEmpty()) {
+            // Only on a clash: find out which course it is with
+            for (String held : schedule.courses()) {
+                if (!held.equals(courseCode) && overlaps(weeks.get(held), wanted)) {
+                    return Optional.of(held);
+                }
+            }
+            for (String held : alsoTaking) {
+                if (!held.equals(courseCode) && overlaps(weeks.get(held), wanted)) {
+                    return Optional.of(held);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Every pair of the given courses that meets at the same time, for the term report
+    public List<Clash> findClashes(List<String> courses) {
+        Map<String, long[]> weeks = courseWeeks;
+        List<Clash> clashes = new ArrayList<>();
+        for (int i = 0; i < courses.size(); i++) {
+            long[] mask = weeks.get(courses.get(i));
+            if (mask == null) {
+                continue;
+            }
+            for (int j = i + 1; j < courses.size(); j++) {
+                int slot = firstSharedSlot(mask, weeks.get(courses.get(j)));
+                if (slot >= 0) {
+                    clashes.add(new Clash(courses.get(i), courses.get(j), DayOfWeek.of(slot / SLOTS_PER_DAY + 1),
+                            LocalTime.ofSecondOfDay((long) slot % SLOTS_PER_DAY * SLOT_MINUTES * 60)));
+                }
+            }
+        }
+        return clashes;
+    }
+
+    // A new pending place takes its time and a rejected or waitlisted one gives it back. An approval may also be
+    // a grade, which moves the course out of the term, so approvals leave the student to reload.
+    @TransactionalEventListener
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        switch (event.status()) {
+            case PENDING -> patch(event.studentId(), s -> s.with(event.courseCode(), courseWeeks));
+            case REJECTED, WAITLISTED -> patch(event.studentId(), s -> s.without(event.courseCode(), courseWeeks));
+            case APPROVED -> evictStudent(event.studentId());
+        }
+    }
+
+    // Loads the timetables of every uncached student in one query, ahead of a bulk run
+    public void preload(Collection<Long> studentIds) {
+        List<Long> missing = studentIds.stream()
+                .filter(id -> !schedules.containsKey(id))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long[] changesBefore = new long[STUDENT_STRIPES];
+        Arrays.setAll(changesBefore, stripeChanges::get);
+
+        Map<Long, List<String>> loaded = new HashMap<>();
+        missing.forEach(id -> loaded.put(id, new ArrayList<>()));
+        for (Object[] row : ReplicaRoutingDataSource.onPrimary(
+                () -> enrollmentRepository.findScheduledCourseCodes(missing, SCHEDULED))) {
+            loaded.get((Long) row[0]).add((String) row[1]);
+        }
+
+        Map<String, long[]> weeks = courseWeeks;
+        loaded.forEach((studentId, courses) -> {
+            int stripe = stripe(studentId);
+            studentLocks[stripe].lock();
+            try {
+                // A patch landed while we were querying: leave the student to load lazily instead
+                if (stripeChanges.get(stripe) == changesBefore[stripe]) {
+                    schedules.putIfAbsent(studentId, Schedule.of(courses.toArray(NO_COURSES), weeks));
+                }
+            } finally {
+                studentLocks[stripe].unlock();
+            }
+        });
+    }
+
+    public void evictStudent(Long studentId) {
+        int stripe = stripe(studentId);
+        studentLocks[stripe].lock();
+        try {
+            stripeChanges.incrementAndGet(stripe);
+            schedules.remove(studentId);
+        } finally {
+            studentLocks[stripe].unlock();
+        }
+    }
+
+    // Only students already cached are patched; others load their committed state on first use
+    private void patch(Long studentId, UnaryOperator<Schedule> change) {
+        int stripe = stripe(studentId);
+        studentLocks[stripe].lock();
+        try {
+            stripeChanges.incrementAndGet(stripe);
+            schedules.computeIfPresent(studentId, (id, schedule) -> change.apply(schedule));
+        } finally {
+            studentLocks[stripe].unlock();
+        }
+    }
+
+    private Schedule schedule(Long studentId, Map<String, long[]> weeks) {
+        Schedule schedule = schedules.get(studentId);
+        if (schedule == null) {
+            schedule = load(studentId);
+        }
+        if (schedule.builtFrom() != weeks) {
+            Schedule rebuilt = Schedule.of(schedule.courses(), weeks);
+            // Loses to a concurrent patch, which builds from the new masks as well
+            schedules.replace(studentId, schedule, rebuilt);
+            schedule = rebuilt;
+        }
+        return schedule;
+    }
+
+    private Schedule load(Long studentId) {
+        int stripe = stripe(studentId);
+        studentLocks[stripe].lock();
+        try {
+            Schedule schedule = schedules.get(studentId);
+            if (schedule == null) {
+                List<String> courses = ReplicaRoutingDataSource.onPrimary(
+                        () -> enrollmentRepository.findScheduledCourseCodes(studentId, SCHEDULED));
+                schedule = Schedule.of(courses.toArray(NO_COURSES), courseWeeks);
+                schedules.put(studentId, schedule);
+            }
+            return schedule;
+        } finally {
+            studentLocks[stripe].unlock();
+        }
+    }
+
+    private static int stripe(Long studentId) {
+        return (int) Math.floorMod(studentId, (long) STUDENT_STRIPES);
+    }
+
+    // Sets bits [from, to)
+    private static void setRange(long[] mask, int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            mask[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    private static boolean overlaps(long[] a, long[] b) {
+        return firstSharedSlot(a, b) >= 0;
+    }
+
+    private static int firstSharedSlot(long[] a, long[] b) {
+        if (a == null || b == null) {
+            return -1;
+        }
+        for (int word = 0; word < WORDS; word++) {
+            long shared = a[word] & b[word];
+            if (shared != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(shared);
+            }
+        }
+        return -1;
+    }
+}
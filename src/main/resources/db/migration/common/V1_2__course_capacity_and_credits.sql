@@ -0,0 +1,3 @@
+-- Seat limit (null means unlimited) and the credits counted towards earned credits and the GPA
+alter table courses add column capacity integer;
+alter table courses add column credits integer default 3 not null;
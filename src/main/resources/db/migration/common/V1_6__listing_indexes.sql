@@ -0,0 +1,5 @@
+-- Keyset pages of the admin enrollment listings: by status, optionally narrowed to a course, with the
+-- major filter answered from the students side
+create index idx_students_major_id on students (major, id);
+create index idx_enrollments_status_id on enrollments (status, id);
+create index idx_enrollments_status_course_id on enrollments (status, course_code, id);
@@ -0,0 +1,19 @@
+-- Explicit indexes for the enrollment access paths (see EnrollmentRepository). Already in place from V1.1
+-- and V1.6:
+--   uk_enrollments_student_course (student_id, course_code): by student, by student and course,
+--     the student dashboard, summaries, bulk duplicate checks
+--   idx_enrollments_status_id (status, id): by status, keyset pages of the admin listings
+--   idx_enrollments_status_course_id (status, course_code, id): the same filtered by course
+
+-- By student and status; covers the passed-course lookups of the prerequisite check
+create index idx_enrollments_student_status on enrollments (student_id, status, passed, course_code);
+
+-- By course and status: seat counts, the waitlist queue (ordered by the implicit id), bulk approvals
+-- and grade imports (with student_id), and the per-course dashboard counts (index-only)
+create index idx_enrollments_course_status on enrollments (course_code, status, student_id);
+
+-- Prerequisite graph, walked from the prerequisite side (the primary key leads with course_code)
+create index idx_course_prerequisites_prerequisite on course_prerequisites (prerequisite_code, course_code);
+
+-- Instructors of a course for the catalog (the primary key leads with instructor_id)
+create index idx_course_instructors_course on course_instructors (course_code, instructor_id);
@@ -0,0 +1,15 @@
+-- Enrollment ids come from a pooled sequence so bulk inserts can be batched (allocationSize = 50). The
+-- sequence is moved past the existing ids in V1.7.
+create sequence enrollment_sequence start with 1 increment by 50;
+
+alter table enrollments alter column id drop identity;
+
+-- Waitlisted requests, and the version the conditional status and grade updates bump
+alter table enrollments alter column status set data type enum ('APPROVED','PENDING','REJECTED','WAITLISTED');
+alter table enrollments alter column status set not null;
+alter table enrollments add column version bigint default 0 not null;
+
+-- Duplicate registrations are recognised by this name (CourseRegistrationService.isDuplicateEnrollment).
+-- H2 reports the backing index, which a rename would leave under the old name.
+alter table enrollments drop constraint UK46xr6cwf0qkex95juad4u36qp;
+alter table enrollments add constraint uk_enrollments_student_course unique (student_id, course_code);
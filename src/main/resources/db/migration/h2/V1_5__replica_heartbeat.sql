@@ -0,0 +1,6 @@
+-- Written by ReplicaLagMonitor on the primary and read back from the replicas
+create table replica_heartbeat (
+    id int not null,
+    beat_at bigint not null,
+    primary key (id)
+);
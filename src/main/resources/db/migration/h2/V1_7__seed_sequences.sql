@@ -0,0 +1,8 @@
+-- Move the sequences past ids already in use. Enrollment ids are handed out in blocks ending at the value
+-- read (Hibernate's pooled optimizer), so that one must be a whole block ahead of the highest id.
+alter sequence enrollment_sequence restart with (select greatest(
+        (select base_value from information_schema.sequences where sequence_name = 'ENROLLMENT_SEQUENCE'),
+        (select coalesce(max(id), 0) + 50 from enrollments)));
+alter sequence student_sequence restart with (select greatest(
+        (select base_value from information_schema.sequences where sequence_name = 'STUDENT_SEQUENCE'),
+        (select coalesce(max(id), 0) + 1 from students)));
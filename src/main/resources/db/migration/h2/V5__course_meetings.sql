@@ -0,0 +1,9 @@
+-- Weekly meeting slots of each course (see Timetable)
+create table course_meetings (
+    course_code varchar(255) not null,
+    day_of_week enum ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY') not null,
+    start_time time not null,
+    end_time time not null,
+    primary key (course_code, day_of_week, start_time),
+    constraint fk_course_meetings_course foreign key (course_code) references courses (code)
+);
@@ -0,0 +1,16 @@
+-- Enrollment ids come from a pooled sequence so bulk inserts can be batched (allocationSize = 50). The
+-- sequence is moved past the existing ids in V1.7.
+create table enrollment_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into enrollment_sequence values (1);
+
+alter table enrollments modify id bigint not null;
+
+-- Waitlisted requests, and the version the conditional status and grade updates bump
+alter table enrollments modify status enum ('APPROVED','PENDING','REJECTED','WAITLISTED') not null;
+alter table enrollments add column version bigint default 0 not null;
+
+-- Duplicate registrations are recognised by this name (CourseRegistrationService.isDuplicateEnrollment)
+alter table enrollments rename index UK46xr6cwf0qkex95juad4u36qp to uk_enrollments_student_course;
@@ -0,0 +1,10 @@
+-- Per-student rollup read by the dashboards (see StudentSummaryService)
+create table student_summaries (
+    student_id bigint not null,
+    passed_courses varchar(4000) not null,
+    earned_credits integer not null,
+    graded_credits integer not null,
+    quality_points float(53) not null,
+    pending_requests integer not null,
+    primary key (student_id)
+) engine=InnoDB;
@@ -0,0 +1,10 @@
+-- Which majors may take which courses (see EligibilityRules)
+create table eligibility_rules (
+    id bigint not null auto_increment,
+    scope enum ('COURSE','DEPARTMENT') not null,
+    target varchar(255) not null,
+    major enum ('COMPUTER_ENGINEERING','MECHANICAL_ENGINEERING'),
+    effect enum ('ALLOW','DENY') not null,
+    primary key (id),
+    constraint uk_eligibility_rules_target unique (scope, target, major)
+) engine=InnoDB;
@@ -0,0 +1,4 @@
+-- Move the sequences past ids already in use. Enrollment ids are handed out in blocks ending at the stored
+-- value (Hibernate's pooled optimizer), so that one must be a whole block ahead of the highest id.
+update enrollment_sequence set next_val = greatest(next_val, (select coalesce(max(id), 0) + 50 from enrollments));
+update student_sequence set next_val = greatest(next_val, (select coalesce(max(id), 0) + 1 from students));
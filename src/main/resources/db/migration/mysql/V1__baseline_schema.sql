@@ -0,0 +1,72 @@
+-- The schema as Hibernate's ddl-auto=update created it before Flyway took over, constraint names included.
+-- Such databases are baselined at this version (spring.flyway.baseline-on-migrate) and run every later
+-- migration; new databases start here.
+
+-- Hibernate emulates sequences on MySQL with single-row tables
+create table student_sequence (
+    next_val bigint
+) engine=InnoDB;
+
+insert into student_sequence values (250001);
+
+create table students (
+    id bigint not null,
+    name varchar(255) not null,
+    major enum ('COMPUTER_ENGINEERING','MECHANICAL_ENGINEERING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table instructors (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table courses (
+    code varchar(255) not null,
+    name varchar(255) not null,
+    primary key (code)
+) engine=InnoDB;
+
+create table course_instructors (
+    instructor_id bigint not null,
+    course_code varchar(255) not null,
+    primary key (instructor_id, course_code)
+) engine=InnoDB;
+
+create table course_prerequisites (
+    course_code varchar(255) not null,
+    prerequisite_code varchar(255) not null,
+    primary key (course_code, prerequisite_code)
+) engine=InnoDB;
+
+create table enrollments (
+    grade float(53),
+    passed bit not null,
+    id bigint not null auto_increment,
+    student_id bigint not null,
+    course_code varchar(255) not null,
+    status enum ('APPROVED','PENDING','REJECTED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    student_id bigint,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    role enum ('ADMIN','STUDENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table enrollments add constraint UK46xr6cwf0qkex95juad4u36qp unique (student_id, course_code);
+alter table users add constraint UKqh3otyipv2k9hqte4a1abcyhq unique (student_id);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table course_instructors add constraint FK8kqu9lo7aqj5wo3c19p1sv1y foreign key (instructor_id) references instructors (id);
+alter table course_instructors add constraint FKpvnyvegemhj6m4j4mgk2bqr8a foreign key (course_code) references courses (code);
+alter table course_prerequisites add constraint FKigvvxyd502an0kow3i6h8yrjb foreign key (prerequisite_code) references courses (code);
+alter table course_prerequisites add constraint FKgn53qihd0diy8hejfhdtiv1b7 foreign key (course_code) references courses (code);
+alter table enrollments add constraint FKe5bgvl1bamywh11h7n99q7ken foreign key (course_code) references courses (code);
+alter table enrollments add constraint FK8kf1u1857xgo56xbfmnif2c51 foreign key (student_id) references students (id);
+alter table users add constraint FKc8nfkx91xbh5fv7a02092q1ip foreign key (student_id) references students (id);
@@ -0,0 +1,13 @@
+-- Entity changes for the other instances to apply to their in-memory state (see ChangeBus). Rows are written in
+-- the transaction that made the change, polled by every instance and deleted once no instance can still need them.
+create table change_outbox (
+    id bigint not null auto_increment,
+    topic varchar(32) not null,
+    entity_id bigint,
+    student_id bigint,
+    origin varchar(64) not null,
+    created_at bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_change_outbox_created_at on change_outbox (created_at);
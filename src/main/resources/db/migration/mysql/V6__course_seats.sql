@@ -0,0 +1,9 @@
+-- Seat and waitlist counters shared by every instance when registration.cluster.enabled is set (see
+-- SharedSeatCounters). A row is created the first time a course is registered for.
+create table course_seats (
+    course_code varchar(255) not null,
+    taken integer not null,
+    waitlisted integer not null,
+    primary key (course_code),
+    constraint fk_course_seats_course foreign key (course_code) references courses (code)
+) engine=InnoDB;
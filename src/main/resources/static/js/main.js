@@ -19,6 +19,21 @@ document.addEventListener('DOMContentLoaded', function() {
     
     // Table row animations
     initTableAnimations();
+
+    // Server-side filters on the admin dashboard
+    initServerFilters();
+
+    // Bulk approve/reject on the admin dashboard
+    initBatchActions();
+
+    // Course registration through the asynchronous queue
+    initAsyncRegistration();
+
+    // Server-side course search on the student dashboard
+    initCourseSearch();
+
+    // Enrollment changes pushed by the server
+    initLiveUpdates();
     
     // Add Ferrari sound effect on button clicks (optional)
     // initSoundEffects();
@@ -103,7 +118,7 @@ function initFormValidations() {
 // Confirmation dialogs for critical actions
 function initConfirmationDialogs() {
     // Approve confirmations
-    const approveButtons = document.querySelectorAll('form[action*="/approve"] button');
+    const approveButtons = document.querySelectorAll('form[action*="/admin/approve/"] button');
     approveButtons.forEach(button => {
         button.addEventListener('click', function(e) {
             if (!confirm('Are you sure you want to APPROVE this enrollment?')) {
@@ -113,7 +128,7 @@ function initConfirmationDialogs() {
     });
     
     // Reject confirmations
-    const rejectButtons = document.querySelectorAll('form[action*="/reject"] button');
+    const rejectButtons = document.querySelectorAll('form[action*="/admin/reject/"] button');
     rejectButtons.forEach(button => {
         button.addEventListener('click', function(e) {
             if (!confirm('Are you sure you want to REJECT this enrollment?')) {
@@ -123,7 +138,7 @@ function initConfirmationDialogs() {
     });
     
     // Grade submission confirmations
-    const gradeButtons = document.querySelectorAll('form[action*="/grade"] button');
+    const gradeButtons = document.querySelectorAll('form[action*="/admin/grade/"] button');
     gradeButtons.forEach(button => {
         button.addEventListener('click', function(e) {
             const form = button.closest('form');
@@ -148,15 +163,18 @@ function autoHideAlerts() {
     const alerts = document.querySelectorAll('.alert');
     
     alerts.forEach(alert => {
-        setTimeout(() => {
-            alert.style.transition = 'all 0.5s ease';
-            alert.style.opacity = '0';
-            alert.style.transform = 'translateX(100%)';
-            
+        // Bulk summaries stay until closed, so their problem list can be read
+        if (!alert.hasAttribute('data-no-autohide')) {
             setTimeout(() => {
-                alert.remove();
-            }, 500);
-        }, 5000);
+                alert.style.transition = 'all 0.5s ease';
+                alert.style.opacity = '0';
+                alert.style.transform = 'translateX(100%)';
+                
+                setTimeout(() => {
+                    alert.remove();
+                }, 500);
+            }, 5000);
+        }
         
         // Add close button
         const closeBtn = document.createElement('span');
@@ -298,6 +316,229 @@ function initTableSearch() {
     });
 }
 
+// Re-query the server when a dashboard filter changes; initTableSearch only filters the rows on screen
+function initServerFilters() {
+    const filterForm = document.querySelector('.filter-form');
+    if (!filterForm) {
+        return;
+    }
+
+    filterForm.querySelectorAll('select').forEach(select => {
+        select.addEventListener('change', () => filterForm.submit());
+    });
+}
+
+// Select-all checkbox and confirmations for the bulk admin actions
+function initBatchActions() {
+    document.querySelectorAll('.select-all').forEach(selectAll => {
+        selectAll.addEventListener('change', () => {
+            document.querySelectorAll(`input[name="ids"][form="${selectAll.dataset.target}"]`)
+                .forEach(box => box.checked = selectAll.checked);
+        });
+    });
+
+    document.querySelectorAll('button[data-confirm]').forEach(button => {
+        button.addEventListener('click', function(e) {
+            if (!confirm(button.dataset.confirm)) {
+                e.preventDefault();
+            }
+        });
+    });
+}
+
+// Submits registrations to the queue and waits for the outcome over SSE (polling if SSE is unavailable);
+// without JavaScript the form posts to the synchronous endpoint instead
+function initAsyncRegistration() {
+    document.querySelectorAll('form[data-async-action]').forEach(bindAsyncRegistration);
+}
+
+function bindAsyncRegistration(form) {
+    form.addEventListener('submit', function(e) {
+        if (e.defaultPrevented || !window.fetch) {
+            return;
+        }
+        e.preventDefault();
+        fetch(form.dataset.asyncAction, { method: 'POST', body: new FormData(form) })
+            .then(response => response.json().then(body => ({ response, body })))
+            .then(({ response, body }) => {
+                if (!response.ok) {
+                    throw new Error(body.message || 'Registration failed');
+                }
+                awaitRegistration(response.headers.get('Location'), body);
+            })
+            .catch(error => registrationFinished(form, { state: 'REJECTED', message: error.message }));
+
+        function awaitRegistration(url, ticket) {
+            if (ticket.state !== 'QUEUED') {
+                registrationFinished(form, ticket);
+            } else if (window.EventSource) {
+                const events = new EventSource(url + '/events');
+                events.addEventListener('registration', event => {
+                    events.close();
+                    registrationFinished(form, JSON.parse(event.data));
+                });
+                events.onerror = () => {
+                    events.close();
+                    pollRegistration(url);
+                };
+            } else {
+                pollRegistration(url);
+            }
+        }
+
+        function pollRegistration(url) {
+            setTimeout(() => fetch(url)
+                .then(response => response.json())
+                .then(ticket => ticket.state === 'QUEUED' ? pollRegistration(url) : registrationFinished(form, ticket))
+                .catch(() => registrationFinished(form, { state: 'REJECTED', message: 'Registration status unavailable' })),
+                1000);
+        }
+    });
+}
+
+// Replaces the course table with results from the search endpoint as the student types; without JavaScript
+// the form reloads the dashboard with the same filters instead
+function initCourseSearch() {
+    const form = document.querySelector('form[data-search-url]');
+    const tbody = document.getElementById('course-rows');
+    if (!form || !tbody || !window.fetch) {
+        return;
+    }
+
+    let timer = null;
+    let latest = 0;
+    const search = () => {
+        const params = new URLSearchParams(new FormData(form));
+        if (params.has('eligibleOnly')) {
+            params.set('major', form.dataset.major);
+            params.delete('eligibleOnly');
+        }
+        params.set('limit', tbody.dataset.limit);
+        // Only the newest request may render; older ones can answer out of order
+        const request = ++latest;
+        fetch(form.dataset.searchUrl + '?' + params)
+            .then(response => response.json())
+            .then(result => {
+                if (request === latest) {
+                    renderCourses(tbody, result);
+                }
+            })
+            .catch(() => showNotification('Course search is unavailable', 'error'));
+    };
+
+    form.addEventListener('input', () => {
+        clearTimeout(timer);
+        timer = setTimeout(search, 150);
+    });
+    form.addEventListener('submit', e => {
+        e.preventDefault();
+        clearTimeout(timer);
+        search();
+    });
+}
+
+function renderCourses(tbody, result) {
+    const template = document.getElementById('course-row-template');
+    tbody.replaceChildren(...result.courses.map(course => {
+        const row = template.content.firstElementChild.cloneNode(true);
+        row.querySelectorAll('[data-field]').forEach(cell => {
+            const value = course[cell.dataset.field];
+            cell.textContent = Array.isArray(value) ? (value.join(', ') || cell.dataset.empty || '') : value;
+        });
+        row.querySelectorAll('input[name="courseCode"]').forEach(input => input.value = course.code);
+        row.querySelectorAll('form[data-async-action]').forEach(bindAsyncRegistration);
+        return row;
+    }));
+    document.querySelectorAll('[data-search-shown]').forEach(el => el.textContent = result.courses.length);
+    document.querySelectorAll('[data-search-total]').forEach(el => el.textContent = result.total);
+}
+
+function registrationFinished(form, ticket) {
+    if (ticket.state === 'REJECTED') {
+        showNotification('Error: ' + ticket.message, 'error');
+        const submitBtn = form.querySelector('button[type="submit"]');
+        submitBtn.disabled = false;
+        submitBtn.textContent = 'Register';
+        return;
+    }
+    window.location = window.location.pathname + (ticket.state === 'WAITLISTED' ? '?waitlisted' : '?success');
+}
+
+// Applies enrollment changes pushed over SSE to the dashboard tables instead of reloading the page;
+// EventSource reconnects on its own when the stream ends
+function initLiveUpdates() {
+    const container = document.querySelector('[data-live-events]');
+    if (!container || !window.EventSource) {
+        return;
+    }
+
+    const events = new EventSource(container.dataset.liveEvents);
+    events.addEventListener('enrollment', event => {
+        const update = JSON.parse(event.data);
+        const visible = matchesDashboardFilters(update);
+        upsertEnrollmentRow('pending-rows', 'pending-row-template', update, visible && update.status === 'PENDING');
+        upsertEnrollmentRow('approved-rows', 'approved-row-template', update, visible && update.status === 'APPROVED');
+        upsertEnrollmentRow('enrollment-rows', 'enrollment-row-template', update, true);
+    });
+}
+
+// The admin dashboard's course and major filters; the student dashboard has none
+function matchesDashboardFilters(update) {
+    const filterForm = document.querySelector('.filter-form');
+    if (!filterForm) {
+        return true;
+    }
+    const course = filterForm.querySelector('select[name="course"]').value;
+    const major = filterForm.querySelector('select[name="major"]').value;
+    return (!course || course === update.courseCode) && (!major || major === update.major);
+}
+
+// Updates the enrollment's row in the table, adds it from the template, or removes it when it no longer belongs
+function upsertEnrollmentRow(tbodyId, templateId, update, belongs) {
+    const tbody = document.getElementById(tbodyId);
+    if (!tbody) {
+        return;
+    }
+
+    let row = tbody.querySelector(`tr[data-enrollment-id="${update.enrollmentId}"]`);
+    if (!belongs) {
+        if (row) {
+            row.remove();
+        }
+        return;
+    }
+    if (!row) {
+        if (tbody.dataset.liveAppend !== 'true') {
+            return;
+        }
+        row = document.getElementById(templateId).content.firstElementChild.cloneNode(true);
+        row.dataset.enrollmentId = update.enrollmentId;
+        row.querySelectorAll('input[name="ids"]').forEach(box => box.value = update.enrollmentId);
+        row.querySelectorAll('form[data-action]').forEach(form => form.action = form.dataset.action + update.enrollmentId);
+        tbody.querySelectorAll('.empty-row').forEach(empty => empty.remove());
+        tbody.appendChild(row);
+    }
+
+    row.querySelectorAll('[data-field]').forEach(cell => cell.textContent = update[cell.dataset.field]);
+    row.querySelectorAll('.status-badge').forEach(badge => {
+        badge.textContent = update.status;
+        badge.className = 'status-badge status-' + update.status.toLowerCase();
+    });
+    row.querySelectorAll('[data-grade]').forEach(cell => {
+        cell.textContent = update.grade != null ? update.grade : cell.dataset.grade;
+        if ('gradeMuted' in cell.dataset) {
+            cell.style.color = update.grade != null ? '' : '#999';
+        }
+    });
+    row.querySelectorAll('[data-passed]').forEach(cell => {
+        const [passed, failed, ungraded] = cell.dataset.passed.split('|');
+        cell.textContent = update.grade == null ? ungraded : (update.passed ? passed : failed);
+        cell.className = update.grade == null ? '' : (update.passed ? 'text-success' : 'text-error');
+    });
+    row.querySelectorAll('input[name="version"]').forEach(input => input.value = update.version);
+    row.classList.add('pulse');
+}
+
 // Grade input validation
 function initGradeValidation() {
     const gradeInputs = document.querySelectorAll('input[name="grade"]');
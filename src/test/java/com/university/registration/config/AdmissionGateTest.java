@@ -0,0 +1,45 @@
+package com.university.registration.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class AdmissionGateTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AdmissionGate gate = new AdmissionGate(2, 2, Duration.ofMillis(500), meterRegistry);
+	private final ExecutorService pool = Executors.newCachedThreadPool();
+
+	@Test
+	void queuesThenRejectsWhenFull() throws Exception {
+		assertThat(gate.tryEnter()).isTrue();
+		assertThat(gate.tryEnter()).isTrue();
+
+		Future<Boolean> first = pool.submit(gate::tryEnter);
+		await().until(() -> gate.getQueueDepth() == 1);
+		Future<Boolean> second = pool.submit(gate::tryEnter);
+		await().until(() -> gate.getQueueDepth() == 2);
+
+		// Queue is full: turned away without waiting
+		long start = System.nanoTime();
+		assertThat(gate.tryEnter()).isFalse();
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+
+		// The freed slot goes to the request that queued first; the other times out
+		gate.exit();
+		assertThat(first.get(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(second.get(1, TimeUnit.SECONDS)).isFalse();
+
+		assertThat(meterRegistry.get("registration.admission.rejected").tag("reason", "queue_full").counter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("registration.admission.rejected").tag("reason", "timeout").counter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("registration.admission.in.flight").gauge().value()).isEqualTo(2);
+		pool.shutdownNow();
+	}
+}
@@ -0,0 +1,55 @@
+package com.university.registration.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofMillis(50), meterRegistry);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.destroy();
+	}
+
+	@Test
+	void timedOutHashGivesItsQueueSlotBack() throws Exception {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+		// Keep the only hashing thread busy
+		executor.execute(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			assertThatThrownBy(() -> encoder.encode("password")).isInstanceOf(AuthenticationServiceException.class);
+			assertThat(executor.getQueue()).isEmpty();
+		}
+		// Both waited for the thread; neither found the queue full
+		assertThat(rejected("timeout")).isEqualTo(2);
+		assertThat(rejected("queue_full")).isZero();
+
+		release.countDown();
+		assertThat(encoder.matches("password", encoder.encode("password"))).isTrue();
+	}
+
+	private double rejected(String reason) {
+		return meterRegistry.get("registration.auth.hashing.rejected").tag("reason", reason).counter().count();
+	}
+}
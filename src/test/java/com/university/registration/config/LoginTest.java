@@ -0,0 +1,61 @@
+package com.university.registration.config;
+
+import com.university.registration.entity.User;
+import com.university.registration.repository.UserRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "registration.security.bcrypt-strength=5")
+@AutoConfigureMockMvc
+class LoginTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void rehashesOnLoginWhenTheWorkFactorChanged() throws Exception {
+		userRepository.save(new User(null, "rehash", new BCryptPasswordEncoder(4).encode("secret"), User.Role.ADMIN, null));
+
+		mockMvc.perform(formLogin().user("rehash").password("secret")).andExpect(status().is3xxRedirection());
+
+		String rehashed = userRepository.findByUsername("rehash").orElseThrow().getPassword();
+		assertThat(rehashed).startsWith("$2a$05$");
+		mockMvc.perform(formLogin().user("rehash").password("secret"))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(result -> assertThat(result.getResponse().getRedirectedUrl()).endsWith("/home"));
+	}
+
+	@Test
+	void rememberMeCookieSignsInWithoutTheSession() throws Exception {
+		Cookie rememberMe = mockMvc.perform(formLogin().user("ali").password("ali123"))
+				.andReturn().getResponse().getCookie("remember-me");
+		assertThat(rememberMe).isNotNull();
+
+		// No session: only the signed cookie
+		mockMvc.perform(get("/student/dashboard").cookie(rememberMe)).andExpect(status().isOk());
+	}
+
+	@Test
+	void basicAuthOnlyOpensTheActuator() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").with(httpBasic("admin", "admin123")))
+				.andExpect(status().isOk())
+				.andExpect(result -> assertThat(result.getRequest().getSession(false)).isNull());
+
+		mockMvc.perform(get("/student/dashboard").with(httpBasic("ali", "ali123")))
+				.andExpect(status().is3xxRedirection());
+	}
+}
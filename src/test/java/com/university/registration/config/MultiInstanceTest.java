@@ -0,0 +1,174 @@
+package com.university.registration.config;
+
+import com.university.registration.CourseRegistrationSystemApplication;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.EligibilityRule;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import com.university.registration.service.CourseCatalog;
+import com.university.registration.service.CourseRegistrationService;
+import com.university.registration.service.EligibilityRules;
+import com.university.registration.service.SeatReservationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static com.university.registration.entity.Student.Major.COMPUTER_ENGINEERING;
+import static com.university.registration.entity.Student.Major.MECHANICAL_ENGINEERING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+// Two instances in one JVM sharing one database, as they would behind a load balancer
+class MultiInstanceTest {
+
+	private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+	private static ConfigurableApplicationContext nodeA;
+	private static ConfigurableApplicationContext nodeB;
+
+	@BeforeAll
+	static void start() {
+		String database = "jdbc:h2:mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+		nodeA = start("node-a", database);
+		nodeB = start("node-b", database);
+	}
+
+	@AfterAll
+	static void stop() {
+		nodeB.close();
+		nodeA.close();
+	}
+
+	@Test
+	void sessionStartedOnOneInstanceIsKnownToTheOther() throws Exception {
+		// One browser, its requests spread over both instances
+		CookieManager cookies = new CookieManager();
+		HttpClient browser = HttpClient.newBuilder().cookieHandler(cookies).build();
+
+		Matcher csrf = CSRF.matcher(browser.send(HttpRequest.newBuilder(url(nodeA, "/login")).build(),
+				HttpResponse.BodyHandlers.ofString()).body());
+		assertThat(csrf.find()).isTrue();
+		String form = "username=ali&password=ali123&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+		HttpResponse<Void> login = browser.send(HttpRequest.newBuilder(url(nodeA, "/login"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build(), HttpResponse.BodyHandlers.discarding());
+		assertThat(login.headers().firstValue("Location")).hasValueSatisfying(location -> assertThat(location).endsWith("/home"));
+
+		// The remember-me cookie would sign in on its own; only the session may carry the login across
+		cookies.getCookieStore().getCookies().stream()
+				.filter(cookie -> cookie.getName().equals("remember-me"))
+				.toList()
+				.forEach(cookie -> cookies.getCookieStore().remove(null, cookie));
+
+		HttpResponse<String> dashboard = browser.send(HttpRequest.newBuilder(url(nodeB, "/student/dashboard")).build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(dashboard.statusCode()).isEqualTo(200);
+		assertThat(dashboard.body()).contains("Ali Khaled");
+	}
+
+	@Test
+	void changesOnOneInstanceReachTheCachesOfTheOther() {
+		EligibilityRules rulesOnB = nodeB.getBean(EligibilityRules.class);
+		CourseCatalog catalogOnB = nodeB.getBean(CourseCatalog.class);
+		assertThat(rulesOnB.isAllowed(MECHANICAL_ENGINEERING, "MTH201")).isTrue();
+		assertThat(catalogOnB.contains("CLU101")).isFalse();
+
+		nodeA.getBean(EligibilityRules.class).addRule(new EligibilityRule(EligibilityRule.Scope.COURSE, "MTH201",
+				MECHANICAL_ENGINEERING, EligibilityRule.Effect.DENY));
+		nodeA.getBean(CourseRepository.class).save(new Course("CLU101", "Distributed Systems"));
+		nodeA.getBean(CourseCatalog.class).invalidate();
+
+		await().until(() -> !rulesOnB.isAllowed(MECHANICAL_ENGINEERING, "MTH201") && catalogOnB.contains("CLU101"));
+	}
+
+	@Test
+	void registrationsOnBothInstancesCannotOverfillACourse() throws Exception {
+		Course course = new Course("CLU201", "Consensus Protocols");
+		course.setCapacity(3);
+		nodeA.getBean(CourseRepository.class).save(course);
+		nodeA.getBean(CourseCatalog.class).invalidate();
+		CourseCatalog catalogOnB = nodeB.getBean(CourseCatalog.class);
+		await().until(() -> catalogOnB.contains("CLU201"));
+
+		StudentRepository students = nodeA.getBean(StudentRepository.class);
+		List<Long> studentIds = IntStream.range(0, 12)
+				.mapToObj(i -> students.save(new Student(null, "Cluster Student " + i, COMPUTER_ENGINEERING)).getId())
+				.toList();
+
+		// Half the students register through each instance, all at once
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(studentIds.size());
+		List<Future<Enrollment.Status>> registrations = new ArrayList<>();
+		for (int i = 0; i < studentIds.size(); i++) {
+			CourseRegistrationService service = (i % 2 == 0 ? nodeA : nodeB).getBean(CourseRegistrationService.class);
+			Long studentId = studentIds.get(i);
+			registrations.add(pool.submit(() -> {
+				start.await();
+				return service.registerCourse(studentId, "CLU201").getStatus();
+			}));
+		}
+		start.countDown();
+		List<Enrollment.Status> statuses = new ArrayList<>();
+		for (Future<Enrollment.Status> registration : registrations) {
+			statuses.add(registration.get(30, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+
+		assertThat(statuses).filteredOn(status -> status == Enrollment.Status.PENDING).hasSize(3);
+		assertThat(statuses).filteredOn(status -> status == Enrollment.Status.WAITLISTED).hasSize(9);
+		assertThat(nodeB.getBean(EnrollmentRepository.class).countByCourseCodeAndStatusIn("CLU201",
+				EnumSet.of(Enrollment.Status.PENDING, Enrollment.Status.APPROVED))).isEqualTo(3);
+		assertThat(nodeB.getBean(SeatReservationService.class).getTakenSeats("CLU201")).isEqualTo(3);
+	}
+
+	@Test
+	void clusterModeRequiresASharedRememberMeKey() {
+		assertThatThrownBy(() -> new SpringApplicationBuilder(CourseRegistrationSystemApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+				"--registration.cluster.enabled=true",
+				"--registration.cluster.node-id=node-c",
+				"--registration.security.remember-me.key="))
+				.hasStackTraceContaining("registration.security.remember-me.key must be set");
+	}
+
+	private static ConfigurableApplicationContext start(String nodeId, String database) {
+		// Command-line arguments, so they win over application-test.properties
+		return new SpringApplicationBuilder(CourseRegistrationSystemApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=" + database,
+				"--registration.cluster.enabled=true",
+				"--registration.cluster.node-id=" + nodeId,
+				"--registration.cluster.poll-interval-ms=100",
+				"--registration.security.remember-me.key=multi-instance-test");
+	}
+
+	private static URI url(ConfigurableApplicationContext node, String path) {
+		int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+		return URI.create("http://localhost:" + port + path);
+	}
+}
@@ -0,0 +1,143 @@
+package com.university.registration.config;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.service.CourseRegistrationService;
+import com.university.registration.service.RegistrationUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The "replica" is the primary's own H2 database behind a second pool, so it is always caught up
+// and the pool a query used shows where it was routed
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1",
+		"registration.datasource.replica.enabled=true",
+		"registration.datasource.replica.urls=jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1",
+		"registration.datasource.replica.check-interval-ms=3600000"
+})
+class ReplicaRoutingTest {
+
+	@Autowired
+	private CourseRegistrationService registrationService;
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@Autowired
+	private ReplicaLagMonitor lagMonitor;
+
+	@Autowired
+	private ReplicaRoutingDataSource router;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		// A replica is only trusted once it has been seen holding the primary's latest heartbeat
+		lagMonitor.check();
+		lagMonitor.check();
+		assertThat(router.getAvailableReplicas()).containsExactly("replica-0");
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyWorkGoesToTheReplicaAndWritesToThePrimary() {
+		double replicaBefore = borrowed("replica-0");
+		registrationService.getEnrollmentPage(Enrollment.Status.PENDING, null, null, null, 50);
+		assertThat(borrowed("replica-0")).isGreaterThan(replicaBefore);
+
+		Long nourId = signIn("nour");
+		double primaryBefore = borrowed("primary");
+		replicaBefore = borrowed("replica-0");
+		registrationService.registerCourse(nourId, "MTH101");
+		assertThat(borrowed("primary")).isGreaterThan(primaryBefore);
+		assertThat(borrowed("replica-0")).isEqualTo(replicaBefore);
+	}
+
+	@Test
+	void writerReadsFromThePrimaryWhileOthersStayOnTheReplica() {
+		Long aliId = signIn("ali");
+		registrationService.registerCourse(aliId, "ECE121");
+
+		double replicaBefore = borrowed("replica-0");
+		assertThat(registrationService.getStudentEnrollments(aliId)).isNotEmpty();
+		assertThat(borrowed("replica-0")).isEqualTo(replicaBefore);
+
+		signIn("admin");
+		registrationService.getStudentEnrollments(aliId);
+		assertThat(borrowed("replica-0")).isGreaterThan(replicaBefore);
+	}
+
+	@Test
+	void laggingReplicaIsTakenOutOfRotation() {
+		DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:lag-primary;DB_CLOSE_DELAY=-1", "sa", "");
+		DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:lag-replica;DB_CLOSE_DELAY=-1", "sa", "");
+		ReadYourWritesWindow window = new ReadYourWritesWindow(Duration.ZERO);
+		ReplicaRoutingDataSource lagRouter = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), window);
+		// Stand-alone databases, so no migrations have created the heartbeat table
+		String heartbeatTable = "create table replica_heartbeat (id int primary key, beat_at bigint not null)";
+		new JdbcTemplate(primary).execute(heartbeatTable);
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute(heartbeatTable);
+		ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, lagRouter, window, Duration.ZERO, meterRegistry);
+
+		// Nothing has been replicated yet
+		monitor.check();
+		monitor.check();
+		assertThat(lagRouter.getAvailableReplicas()).isEmpty();
+
+		replicateHeartbeat(primary, replicaJdbc);
+		sleep();
+		monitor.check();
+		assertThat(lagRouter.getAvailableReplicas()).containsExactly("replica-0");
+
+		// The primary's next heartbeat never reaches the replica
+		monitor.check();
+		assertThat(lagRouter.getAvailableReplicas()).isEmpty();
+	}
+
+	private Long signIn(String username) {
+		UserDetails user = userDetailsService.loadUserByUsername(username);
+		SecurityContextHolder.getContext().setAuthentication(
+				UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+		return ((RegistrationUserDetails) user).getStudentId();
+	}
+
+	private double borrowed(String pool) {
+		return meterRegistry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+	}
+
+	private static void replicateHeartbeat(DataSource primary, JdbcTemplate replica) {
+		List<Long> beat = new JdbcTemplate(primary).queryForList("select beat_at from replica_heartbeat", Long.class);
+		replica.update("merge into replica_heartbeat (id, beat_at) key (id) values (1, ?)", beat.get(0));
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(5);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.university.registration.config;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.service.CourseRegistrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"registration.synthetic.students=300",
+		"registration.synthetic.courses=80",
+		"registration.synthetic.enrollments-per-student=6",
+		"registration.synthetic.users=10"
+})
+@ActiveProfiles({"test", "synthetic"})
+class SyntheticDataGeneratorTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CourseRegistrationService registrationService;
+
+	@Test
+	void generatesConsistentData() {
+		assertThat(count("select count(*) from students")).isEqualTo(300);
+		assertThat(count("select count(*) from courses")).isEqualTo(80);
+		assertThat(count("select count(*) from users")).isEqualTo(11);
+		assertThat(count("select count(*) from enrollments")).isGreaterThan(300);
+
+		// Major rules hold
+		assertThat(count("select count(*) from enrollments e join students s on s.id = e.student_id "
+				+ "where (e.course_code like 'ECE%' and s.major <> 'COMPUTER_ENGINEERING') "
+				+ "or (e.course_code like 'MNG%' and s.major <> 'MECHANICAL_ENGINEERING')")).isZero();
+		// Every enrollment's prerequisites were passed by that student
+		assertThat(count("select count(*) from enrollments e join course_prerequisites p on p.course_code = e.course_code "
+				+ "where not exists (select 1 from enrollments q where q.student_id = e.student_id "
+				+ "and q.course_code = p.prerequisite_code and q.passed = true)")).isZero();
+		// Prerequisites only point at lower levels
+		assertThat(count("select count(*) from course_prerequisites "
+				+ "where substring(prerequisite_code, 4, 1) >= substring(course_code, 4, 1)")).isZero();
+	}
+
+	@Test
+	void sequencesContinueAfterGeneratedIds() {
+		String course = jdbcTemplate.queryForObject(
+				"select min(code) from courses c where code like 'MTH1%' and not exists "
+						+ "(select 1 from enrollments e where e.course_code = c.code and e.student_id = ?)",
+				String.class, SyntheticDataGenerator.FIRST_STUDENT_ID);
+		Enrollment enrollment = registrationService.registerCourse(SyntheticDataGenerator.FIRST_STUDENT_ID, course);
+
+		assertThat(enrollment.getId()).isGreaterThan(count("select max(id) from enrollments where id <> " + enrollment.getId()));
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+}
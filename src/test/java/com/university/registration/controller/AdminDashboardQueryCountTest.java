@@ -0,0 +1,85 @@
+package com.university.registration.controller;
+
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class AdminDashboardQueryCountTest {
+
+	// Pending page, approved page, enrollment counts; the course table comes from the catalog cache
+	private static final long EXPECTED_STATEMENTS = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void dashboardStatementCountDoesNotGrowWithData() throws Exception {
+		renderDashboard();
+		addEnrollments(2);
+		long small = renderDashboard();
+
+		addEnrollments(50);
+		long large = renderDashboard();
+
+		assertThat(small).isEqualTo(EXPECTED_STATEMENTS);
+		assertThat(large).isEqualTo(small);
+	}
+
+	private long renderDashboard() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get("/admin/dashboard")).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void addEnrollments(int students) {
+		List<Course> courses = courseRepository.findAll().subList(0, 4);
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (int i = 0; i < students; i++) {
+			Student student = studentRepository.save(
+					new Student(null, "Student " + i, Student.Major.COMPUTER_ENGINEERING));
+			for (int c = 0; c < courses.size(); c++) {
+				Enrollment enrollment = new Enrollment();
+				enrollment.setStudent(student);
+				enrollment.setCourse(courses.get(c));
+				enrollment.setStatus(c % 2 == 0 ? Enrollment.Status.PENDING : Enrollment.Status.APPROVED);
+				enrollments.add(enrollment);
+			}
+		}
+		enrollmentRepository.saveAll(enrollments);
+	}
+}
@@ -0,0 +1,166 @@
+package com.university.registration.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import com.university.registration.service.CourseCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkRegistrationControllerTest {
+
+	private static final String COURSE = "BLK101";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private CourseCatalog courseCatalog;
+
+	@MockitoSpyBean
+	private EnrollmentRepository enrollmentRepository;
+
+	@BeforeEach
+	void setUp() {
+		if (!courseRepository.existsById(COURSE)) {
+			courseRepository.save(new Course(COURSE, "Bulk Course"));
+			courseCatalog.invalidate();
+		}
+	}
+
+	@Test
+	void jsonReportsEveryRow() throws Exception {
+		Long student = student();
+		Long other = student();
+		String body = objectMapper.writeValueAsString(List.of(
+				new Request(student, COURSE),
+				new Request(student, COURSE),
+				new Request(-1L, COURSE),
+				new Request(other, "NOPE999")));
+
+		JsonNode report = bulk(post("/admin/registrations/bulk").contentType(MediaType.APPLICATION_JSON).content(body));
+
+		assertThat(report.get("total").asInt()).isEqualTo(4);
+		assertThat(report.get("accepted").asInt()).isEqualTo(1);
+		JsonNode results = report.get("results");
+		assertThat(results.get(0).get("outcome").asText()).isEqualTo("ACCEPTED");
+		assertThat(results.get(0).get("status").asText()).isEqualTo("PENDING");
+		assertThat(results.get(1).get("message").asText()).isEqualTo("Student already enrolled in course: " + COURSE);
+		assertThat(results.get(2).get("message").asText()).isEqualTo("Student not found with ID: -1");
+		assertThat(results.get(3).get("message").asText()).isEqualTo("Course not found with code: NOPE999");
+	}
+
+	@Test
+	void csvSkipsTheHeaderAndNumbersDataRows() throws Exception {
+		Long student = student();
+		Long enrolled = student();
+		enroll(enrolled);
+		String csv = "studentId,courseCode\n"
+				+ student + "," + COURSE + "\n"
+				+ "not a row\n"
+				+ enrolled + "," + COURSE + "\n";
+
+		JsonNode report = bulk(post("/admin/registrations/bulk").contentType("text/csv").content(csv));
+
+		JsonNode results = report.get("results");
+		assertThat(results).hasSize(3);
+		assertThat(results.get(0).get("row").asInt()).isEqualTo(1);
+		assertThat(results.get(0).get("outcome").asText()).isEqualTo("ACCEPTED");
+		assertThat(results.get(1).get("row").asInt()).isEqualTo(2);
+		assertThat(results.get(1).get("message").asText()).isEqualTo("Malformed line: not a row");
+		assertThat(results.get(2).get("row").asInt()).isEqualTo(3);
+		assertThat(results.get(2).get("message").asText()).isEqualTo("Student already enrolled in course: " + COURSE);
+	}
+
+	@Test
+	void csvOnlySkipsTheExpectedHeader() throws Exception {
+		Long student = student();
+		String headed = "StudentID, CourseCode\n" + student + "," + COURSE + "\n";
+		JsonNode report = bulk(post("/admin/registrations/bulk").contentType("text/csv").content(headed));
+		assertThat(report.get("results")).hasSize(1);
+		assertThat(report.get("results").get(0).get("outcome").asText()).isEqualTo("ACCEPTED");
+
+		// Any other non-numeric first line is a bad row, not a header
+		String unheaded = "id,course\n" + student() + "," + COURSE + "\n";
+		JsonNode results = bulk(post("/admin/registrations/bulk").contentType("text/csv").content(unheaded)).get("results");
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0).get("row").asInt()).isEqualTo(1);
+		assertThat(results.get(0).get("message").asText()).isEqualTo("Malformed line: id,course");
+		assertThat(results.get(1).get("outcome").asText()).isEqualTo("ACCEPTED");
+	}
+
+	@Test
+	void chunkThatLosesARaceOnTheKeyIsRetried() throws Exception {
+		Long raced = student();
+		Long student = student();
+		enroll(raced);
+		// The first pre-read misses the committed enrollment, as if it had been inserted just after
+		// Later calls go to the real repository, which the spy of a proxied repository reaches through its default answer
+		Answer<?> repository = mockingDetails(enrollmentRepository).getMockCreationSettings().getDefaultAnswer();
+		doReturn(List.of()).doAnswer(repository).when(enrollmentRepository).findStudentCoursePairs(any(), any());
+
+		String body = objectMapper.writeValueAsString(List.of(new Request(raced, COURSE), new Request(student, COURSE)));
+		JsonNode report = bulk(post("/admin/registrations/bulk").contentType(MediaType.APPLICATION_JSON).content(body));
+
+		verify(enrollmentRepository, times(2)).findStudentCoursePairs(any(), any());
+		JsonNode results = report.get("results");
+		assertThat(results.get(0).get("message").asText()).isEqualTo("Student already enrolled in course: " + COURSE);
+		assertThat(results.get(1).get("outcome").asText()).isEqualTo("ACCEPTED");
+	}
+
+	private record Request(Long studentId, String courseCode) {
+	}
+
+	private JsonNode bulk(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.with(user("admin").roles("ADMIN")).with(csrf()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private Long student() {
+		return studentRepository.save(new Student(null, "Bulk Student", Student.Major.COMPUTER_ENGINEERING)).getId();
+	}
+
+	private void enroll(Long studentId) {
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(studentRepository.getReferenceById(studentId));
+		enrollment.setCourse(courseRepository.getReferenceById(COURSE));
+		enrollment.setStatus(Enrollment.Status.PENDING);
+		enrollmentRepository.save(enrollment);
+	}
+}
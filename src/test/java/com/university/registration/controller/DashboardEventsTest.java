@@ -0,0 +1,68 @@
+package com.university.registration.controller;
+
+import com.university.registration.entity.User;
+import com.university.registration.repository.UserRepository;
+import com.university.registration.service.CourseRegistrationService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardEventsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CourseRegistrationService registrationService;
+
+	@Test
+	void pushesCommittedChangesToAdminsAndTheStudent() throws Exception {
+		User nour = userRepository.findByUsername("nour").orElseThrow();
+		MockHttpServletResponse admin = mockMvc.perform(get("/admin/events").with(user("admin").roles("ADMIN")))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+		MockHttpServletResponse student = openStream("nour", "nour123");
+		MockHttpServletResponse otherStudent = openStream("ali", "ali123");
+
+		Long enrollmentId = registrationService.registerCourse(nour.getStudent().getId(), "MNG101").getId();
+
+		String expected = "\"enrollmentId\":" + enrollmentId + ",";
+		await(admin, expected);
+		await(student, expected);
+		assertThat(admin.getContentAsString()).contains("event:enrollment", "\"studentName\":\"Nour Mahmoud\"",
+				"\"status\":\"PENDING\"");
+		assertThat(otherStudent.getContentAsString()).doesNotContain(expected);
+	}
+
+	private MockHttpServletResponse openStream(String username, String password) throws Exception {
+		// Spring Session keeps the session in the database and finds it by its cookie
+		Cookie session = mockMvc.perform(formLogin().user(username).password(password))
+				.andReturn().getResponse().getCookie("SESSION");
+		return mockMvc.perform(get("/student/events").cookie(session))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+	}
+
+	private static void await(MockHttpServletResponse response, String text) throws Exception {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!response.getContentAsString().contains(text) && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertThat(response.getContentAsString()).contains(text);
+	}
+}
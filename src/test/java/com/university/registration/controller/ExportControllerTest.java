@@ -0,0 +1,102 @@
+package com.university.registration.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+	private static final String COURSE = "EXP101";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@BeforeEach
+	void setUp() {
+		if (courseRepository.existsById(COURSE)) {
+			return;
+		}
+		Course course = courseRepository.save(new Course(COURSE, "Exports, \"Streaming\" and You"));
+		enroll(course, "Graded Student", Enrollment.Status.APPROVED, 81.5);
+		enroll(course, "Approved Student", Enrollment.Status.APPROVED, null);
+		enroll(course, "Pending Student", Enrollment.Status.PENDING, null);
+	}
+
+	@Test
+	void streamsFilteredCsvWithQuotedText() throws Exception {
+		String csv = export("/admin/exports/enrollments.csv?course=" + COURSE + "&status=APPROVED");
+		String[] lines = csv.split("\n");
+
+		assertThat(lines).hasSize(3);
+		assertThat(lines[0]).startsWith("enrollmentId,studentId,studentName");
+		assertThat(lines[1]).contains(",Graded Student,COMPUTER_ENGINEERING," + COURSE
+				+ ",\"Exports, \"\"Streaming\"\" and You\",APPROVED,81.5,true");
+	}
+
+	@Test
+	void streamsJsonArray() throws Exception {
+		JsonNode rows = objectMapper.readTree(export("/admin/exports/enrollments.json?course=" + COURSE));
+
+		assertThat(rows).hasSize(3);
+		assertThat(rows.get(2).get("status").asText()).isEqualTo("PENDING");
+	}
+
+	@Test
+	void gradeSheetUsesTheImportLayout() throws Exception {
+		String[] lines = export("/admin/exports/grades/" + COURSE + ".csv").split("\n");
+
+		assertThat(lines).hasSize(3);
+		assertThat(lines[0]).isEqualTo("studentId,grade,passed");
+		assertThat(lines[1]).endsWith(",81.5,true");
+		assertThat(lines[2]).endsWith(",,false");
+	}
+
+	private String export(String url) throws Exception {
+		MvcResult started = mockMvc.perform(get(url).with(user("admin").roles("ADMIN"))).andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private void enroll(Course course, String name, Enrollment.Status status, Double grade) {
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(studentRepository.save(new Student(null, name, Student.Major.COMPUTER_ENGINEERING)));
+		enrollment.setCourse(course);
+		enrollment.setStatus(status);
+		enrollment.setGrade(grade);
+		enrollment.setPassed(grade != null && grade >= 50);
+		enrollmentRepository.save(enrollment);
+	}
+}
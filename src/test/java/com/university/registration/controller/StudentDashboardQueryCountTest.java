@@ -0,0 +1,68 @@
+package com.university.registration.controller;
+
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.User;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class StudentDashboardQueryCountTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Test
+	void dashboardResolvesStudentFromPrincipal() throws Exception {
+		User ali = userRepository.findByUsername("ali").orElseThrow();
+		Course course = courseRepository.findAll().get(0);
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(ali.getStudent());
+		enrollment.setCourse(course);
+		enrollment.setStatus(Enrollment.Status.PENDING);
+		enrollmentRepository.save(enrollment);
+
+		Cookie session = mockMvc.perform(formLogin().user("ali").password("ali123"))
+				.andReturn().getResponse().getCookie("SESSION");
+		mockMvc.perform(get("/student/dashboard").cookie(session)).andExpect(status().isOk());
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get("/student/dashboard").cookie(session))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString(ali.getStudent().getName())));
+
+		// The student's enrollments and their summary row; no user or student lookup
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,124 @@
+package com.university.registration.load;
+
+import com.university.registration.CourseRegistrationSystemApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Platform vs virtual request threads under 1k and 5k concurrent users hitting the student dashboard.
+// Excluded from the normal build; run with: mvn test -Pload-test
+@Tag("load")
+class VirtualThreadLoadTest {
+
+	private static final int[] CONCURRENT_USERS = {1_000, 5_000};
+	private static final int REQUESTS_PER_USER = 3;
+	private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+	@Test
+	void compareThroughputAndP99(TestReporter reporter) throws Exception {
+		StringBuilder report = new StringBuilder(String.format("%n%-10s %8s %12s %10s %8s%n",
+				"threads", "users", "req/s", "p99 ms", "errors"));
+		for (boolean virtual : new boolean[]{false, true}) {
+			try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CourseRegistrationSystemApplication.class)
+					.run("--server.port=0", "--spring.threads.virtual.enabled=" + virtual)) {
+				int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+				for (int users : CONCURRENT_USERS) {
+					Result result = run(port, users);
+					report.append(String.format("%-10s %8d %12.0f %10.1f %8d%n",
+							virtual ? "virtual" : "platform", users, result.throughput(), result.p99Millis(), result.errors()));
+					assertThat(result.errors()).isLessThan(users * REQUESTS_PER_USER / 100);
+				}
+			}
+		}
+		reporter.publishEntry("throughput", report.toString());
+	}
+
+	private Result run(int port, int users) throws Exception {
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			HttpClient http = HttpClient.newBuilder()
+					.cookieHandler(new CookieManager())
+					.executor(clients)
+					.connectTimeout(Duration.ofSeconds(30))
+					.build();
+			String base = "http://localhost:" + port;
+			login(http, base, "ali", "ali123");
+
+			HttpRequest dashboard = HttpRequest.newBuilder(URI.create(base + "/student/dashboard"))
+					.timeout(Duration.ofSeconds(60))
+					.build();
+			long[] latencies = new long[users * REQUESTS_PER_USER];
+			AtomicInteger next = new AtomicInteger();
+			AtomicInteger errors = new AtomicInteger();
+			CountDownLatch start = new CountDownLatch(1);
+
+			Future<?>[] running = new Future<?>[users];
+			for (int u = 0; u < users; u++) {
+				running[u] = clients.submit(() -> {
+					start.await();
+					for (int i = 0; i < REQUESTS_PER_USER; i++) {
+						long begin = System.nanoTime();
+						try {
+							if (http.send(dashboard, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+					}
+					return null;
+				});
+			}
+
+			long begin = System.nanoTime();
+			start.countDown();
+			for (Future<?> user : running) {
+				user.get();
+			}
+			double seconds = (System.nanoTime() - begin) / 1e9;
+
+			Arrays.sort(latencies);
+			long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+			return new Result(latencies.length / seconds, p99 / 1e6, errors.get());
+		}
+	}
+
+	private void login(HttpClient http, String base, String username, String password) throws Exception {
+		String page = http.send(HttpRequest.newBuilder(URI.create(base + "/login")).build(),
+				HttpResponse.BodyHandlers.ofString()).body();
+		Matcher csrf = CSRF_INPUT.matcher(page);
+		assertThat(csrf.find()).isTrue();
+
+		String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+				+ "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+				+ "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+		HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+						.header("Content-Type", "application/x-www-form-urlencoded")
+						.POST(HttpRequest.BodyPublishers.ofString(form))
+						.build(),
+				HttpResponse.BodyHandlers.discarding());
+		assertThat(response.headers().firstValue("Location")).hasValueSatisfying(l -> assertThat(l).endsWith("/home"));
+	}
+
+	private record Result(double throughput, double p99Millis, int errors) {
+	}
+}
@@ -0,0 +1,109 @@
+package com.university.registration.repository;
+
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the repository queries, then EXPLAINs every statement they sent and fails on a full table scan.
+// Whole-table reads by design (catalog loads, unfiltered exports and aggregates, findAll) are not checked.
+@SpringBootTest
+@Transactional
+class QueryPlanTest {
+
+	private static final Set<Enrollment.Status> SEAT_HOLDING = Set.of(Enrollment.Status.PENDING, Enrollment.Status.APPROVED);
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private StudentSummaryRepository summaryRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void enrollmentQueriesUseIndexes() {
+		Student student = studentRepository.save(new Student(null, "Plan Student", Student.Major.COMPUTER_ENGINEERING));
+		Course course = courseRepository.findById("MTH101").orElseThrow();
+		List<Long> ids = List.of(1L, 2L);
+		List<Long> studentIds = List.of(student.getId());
+
+		assertIndexed(() -> {
+			enrollmentRepository.findPage(Enrollment.Status.PENDING, null, null, 0, Limit.of(50));
+			enrollmentRepository.findWithCourseByStudentId(student.getId());
+			enrollmentRepository.countByCourseCodeAndStatusIn(course.getCode(), SEAT_HOLDING);
+			enrollmentRepository.findByCourseCodeAndStatusOrderByIdAsc(course.getCode(), Enrollment.Status.WAITLISTED, Limit.of(1));
+			enrollmentRepository.findStateById(1L);
+			enrollmentRepository.transition(1L, Enrollment.Status.PENDING, Enrollment.Status.APPROVED, null);
+			enrollmentRepository.lockByIdInAndStatus(ids, Enrollment.Status.PENDING);
+			enrollmentRepository.findIdPage(Enrollment.Status.PENDING, course.getCode(), null, 0, Limit.of(50));
+			enrollmentRepository.lockByCourseCodeAndStatus(course.getCode(), Enrollment.Status.PENDING, Limit.of(50));
+			enrollmentRepository.transitionAll(ids, Enrollment.Status.APPROVED);
+			enrollmentRepository.findStatesByCourseAndStudents(course.getCode(), Enrollment.Status.APPROVED, studentIds);
+			enrollmentRepository.updateGrade(1L, 90.0, true, null);
+			enrollmentRepository.findPassedCourseCodes(student.getId());
+			enrollmentRepository.findPassedCourseCodes(studentIds);
+			enrollmentRepository.findUpdates(ids);
+			enrollmentRepository.findSummaryRows(studentIds);
+			enrollmentRepository.findStudentCoursePairs(studentIds, List.of(course.getCode()));
+		});
+	}
+
+	@Test
+	void studentAndCourseQueriesUseIndexes() {
+		assertIndexed(() -> {
+			studentRepository.findIdsAfter(0L, Limit.of(100));
+			summaryRepository.lockAllById(List.of(1L, 2L));
+			// Lazy collections, loaded by course code
+			Course course = courseRepository.findById("MTH201").orElseThrow();
+			course.getInstructors().size();
+			course.getPrerequisites().size();
+		});
+	}
+
+	private void assertIndexed(Runnable queries) {
+		// Turning the statistics off and on again clears them
+		jdbcTemplate.execute("set query_statistics false");
+		jdbcTemplate.execute("set query_statistics_max_entries 1000");
+		jdbcTemplate.execute("set query_statistics true");
+		entityManager.clear();
+		queries.run();
+		entityManager.flush();
+
+		List<String> statements = jdbcTemplate.queryForList(
+						"select sql_statement from information_schema.query_statistics", String.class).stream()
+				.filter(sql -> sql.toLowerCase(Locale.ROOT).matches("(select|update|delete)\\b.*\\b(from|set)\\b.*"))
+				.filter(sql -> !sql.toLowerCase(Locale.ROOT).contains("information_schema"))
+				.toList();
+		assertThat(statements).isNotEmpty();
+
+		for (String sql : statements) {
+			// Parameters are left unbound: H2 plans EXPLAIN without their values
+			String plan = jdbcTemplate.query(con -> con.prepareStatement("explain " + sql),
+					rs -> rs.next() ? rs.getString(1) : "");
+			assertThat(plan).as(sql).doesNotContain("tableScan");
+		}
+	}
+}
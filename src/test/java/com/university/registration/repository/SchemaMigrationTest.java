@@ -0,0 +1,68 @@
+package com.university.registration.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database that ddl-auto=update built before Flyway, with data in it, must end up with the same schema as
+// a new one once baselined and migrated
+class SchemaMigrationTest {
+
+	private static final String COLUMNS = "select table_name || '.' || column_name || ' ' || data_type || ' '"
+			+ " || is_nullable || ' ' || coalesce(column_default, '') from information_schema.columns"
+			+ " where table_schema = 'PUBLIC' and table_name <> 'flyway_schema_history' order by 1";
+
+	private static final String CONSTRAINTS = "select table_name || '.' || constraint_name from"
+			+ " information_schema.table_constraints where table_schema = 'PUBLIC'"
+			+ " and table_name <> 'flyway_schema_history' and constraint_name not like 'CONSTRAINT_%' order by 1";
+
+	@Test
+	void preFlywayDatabaseMigratesToTheCurrentSchema() {
+		DataSource fresh = dataSource();
+		flyway(fresh).migrate();
+
+		DataSource existing = dataSource();
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline_schema.sql")).execute(existing);
+		JdbcTemplate jdbc = new JdbcTemplate(existing);
+		jdbc.update("insert into students (id, name, major) values (250400, 'Old Student', 'COMPUTER_ENGINEERING')");
+		jdbc.update("insert into courses (code, name) values ('OLD101', 'Old Course')");
+		jdbc.update("insert into enrollments (id, student_id, course_code, status, passed) values (700, 250400, 'OLD101', 'PENDING', false)");
+		flyway(existing).migrate();
+
+		JdbcTemplate freshJdbc = new JdbcTemplate(fresh);
+		assertThat(columns(jdbc, COLUMNS)).isEqualTo(columns(freshJdbc, COLUMNS));
+		assertThat(columns(jdbc, CONSTRAINTS)).isEqualTo(columns(freshJdbc, CONSTRAINTS))
+				.contains("ENROLLMENTS.UK_ENROLLMENTS_STUDENT_COURSE");
+
+		// The pooled optimizer hands out the block of 50 ending at the value read
+		assertThat(jdbc.queryForObject("select next value for enrollment_sequence", Long.class) - 49).isGreaterThan(700);
+		assertThat(jdbc.queryForObject("select next value for student_sequence", Long.class)).isGreaterThan(250400);
+		assertThat(jdbc.queryForObject("select credits from courses where code = 'OLD101'", Integer.class)).isEqualTo(3);
+	}
+
+	private static Flyway flyway(DataSource dataSource) {
+		return Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/h2", "classpath:db/migration/common")
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load();
+	}
+
+	private static DataSource dataSource() {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	private static List<String> columns(JdbcTemplate jdbc, String sql) {
+		return jdbc.queryForList(sql, String.class);
+	}
+}
@@ -0,0 +1,95 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.CatalogStats;
+import com.university.registration.dto.CourseOverview;
+import com.university.registration.entity.Course;
+import com.university.registration.repository.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CourseCatalogTest {
+
+	@Autowired
+	private CourseCatalog courseCatalog;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Object maxSize;
+
+	@BeforeEach
+	void setUp() {
+		maxSize = ReflectionTestUtils.getField(courseCatalog, "maxSize");
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(courseCatalog, "maxSize", maxSize);
+		courseCatalog.invalidate();
+	}
+
+	@Test
+	void loadsOnceAndServesHitsFromTheSnapshot() {
+		courseCatalog.invalidate();
+		CatalogStats before = courseCatalog.getStats();
+
+		courseCatalog.getCourses();
+		assertThat(courseCatalog.contains("MTH101")).isTrue();
+		assertThat(courseCatalog.findCourse("MTH201").map(CourseOverview::prerequisites)).hasValueSatisfying(
+				prerequisites -> assertThat(prerequisites).isNotEmpty());
+
+		CatalogStats after = courseCatalog.getStats();
+		assertThat(after.loads() - before.loads()).isEqualTo(1);
+		assertThat(after.misses() - before.misses()).isEqualTo(1);
+		assertThat(after.hits() - before.hits()).isEqualTo(2);
+		assertThat(after.size()).isEqualTo(courseRepository.count());
+		assertThat(after.detailsCached()).isTrue();
+	}
+
+	@Test
+	void invalidationInsideATransactionWaitsForTheCommit() {
+		courseCatalog.getCourses();
+		long invalidations = courseCatalog.getStats().invalidations();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			courseRepository.save(new Course("CAT101", "Catalog Course"));
+			courseCatalog.invalidate();
+			assertThat(courseCatalog.getStats().invalidations()).isEqualTo(invalidations);
+		});
+
+		assertThat(courseCatalog.getStats().invalidations()).isEqualTo(invalidations + 1);
+		assertThat(courseCatalog.findCourse("CAT101").map(CourseOverview::name)).hasValue("Catalog Course");
+	}
+
+	@Test
+	void oversizedCatalogKeepsItsCodesAndReadsDetailsPerCourse() {
+		ReflectionTestUtils.setField(courseCatalog, "maxSize", 1);
+		courseCatalog.invalidate();
+
+		assertThat(courseCatalog.contains("MTH101")).isTrue();
+		assertThat(courseCatalog.contains("NOPE999")).isFalse();
+		assertThat(courseCatalog.findCourse("MTH201").map(CourseOverview::prerequisites)).hasValueSatisfying(
+				prerequisites -> assertThat(prerequisites).isNotEmpty());
+		assertThat(courseCatalog.findCourse("NOPE999")).isEmpty();
+		assertThat(courseCatalog.getCourses()).hasSize((int) courseRepository.count());
+
+		// Only the first call loaded; the codes are served from the snapshot after that
+		CatalogStats stats = courseCatalog.getStats();
+		long loads = stats.loads();
+		courseCatalog.contains("MTH102");
+		assertThat(courseCatalog.getStats().loads()).isEqualTo(loads);
+		assertThat(stats.size()).isEqualTo(courseRepository.count());
+		assertThat(stats.detailsCached()).isFalse();
+	}
+}
@@ -0,0 +1,69 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.CourseHit;
+import com.university.registration.dto.CourseSearchResult;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CourseSearchTest {
+
+	@Autowired
+	private CourseSearch courseSearch;
+
+	@Autowired
+	private CourseCatalog courseCatalog;
+
+	@Autowired
+	private EligibilityRules eligibilityRules;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Test
+	void matchesPrefixesTyposAndInstructors() {
+		assertThat(codes("calc")).containsExactly("MTH101", "MTH102");
+		assertThat(codes("calculis")).containsExactly("MTH101", "MTH102");
+		assertThat(codes("thermodinamics")).containsExactly("MNG201");
+		assertThat(codes("fatima")).containsExactly("ECE322", "ECE421", "ECE422");
+		assertThat(codes("ece 22")).containsExactly("ECE221");
+		assertThat(codes("xyzzy")).isEmpty();
+	}
+
+	@Test
+	void facetsCountWithEveryOtherFilterApplied() {
+		CourseSearchResult mathematics = courseSearch.search("", "mth", null, 50);
+		assertThat(mathematics.total()).isEqualTo(4);
+		assertThat(mathematics.departments()).containsEntry("ECE", 6).containsEntry("MNG", 5).containsEntry("MTH", 4);
+
+		CourseSearchResult mechanical = courseSearch.search("", null, Student.Major.MECHANICAL_ENGINEERING, 50);
+		assertThat(mechanical.courses()).allMatch(hit ->
+				eligibilityRules.isAllowed(Student.Major.MECHANICAL_ENGINEERING, hit.code()));
+		assertThat(mechanical.majors()).containsEntry(Student.Major.MECHANICAL_ENGINEERING, mechanical.total());
+	}
+
+	@Test
+	void catalogChangesReachTheIndex() {
+		Course course = courseRepository.save(new Course("SRC101", "Quantum Computing"));
+		courseCatalog.invalidate();
+		assertThat(codes("quantm")).containsExactly("SRC101");
+
+		course.setName("Cryptography");
+		courseRepository.save(course);
+		courseCatalog.invalidate();
+		assertThat(codes("quantum")).isEmpty();
+		assertThat(codes("crypto")).containsExactly("SRC101");
+	}
+
+	private List<String> codes(String query) {
+		return courseSearch.search(query, null, null, 50).courses().stream().map(CourseHit::code).sorted().toList();
+	}
+}
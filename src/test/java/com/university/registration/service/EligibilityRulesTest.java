@@ -0,0 +1,60 @@
+package com.university.registration.service;
+
+import com.university.registration.entity.EligibilityRule;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EligibilityRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.university.registration.entity.Student.Major.COMPUTER_ENGINEERING;
+import static com.university.registration.entity.Student.Major.MECHANICAL_ENGINEERING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class EligibilityRulesTest {
+
+	private final EligibilityRuleRepository ruleRepository = mock(EligibilityRuleRepository.class);
+	private final CourseRepository courseRepository = mock(CourseRepository.class);
+	private final EligibilityRules rules = new EligibilityRules(ruleRepository, courseRepository,
+			mock(ApplicationEventPublisher.class));
+	private final List<EligibilityRule> stored = new ArrayList<>(EligibilityRules.DEFAULT_RULES);
+
+	@BeforeEach
+	void setUp() {
+		when(ruleRepository.findAll()).thenAnswer(invocation -> List.copyOf(stored));
+		when(courseRepository.findAllCodes()).thenReturn(List.of("MTH101", "ECE121", "ECE321", "MNG101"));
+	}
+
+	@Test
+	void defaultRulesMatchTheFormerDepartmentPrefixes() {
+		assertThat(rules.isAllowed(COMPUTER_ENGINEERING, "MTH101")).isTrue();
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "MTH101")).isTrue();
+		assertThat(rules.isAllowed(COMPUTER_ENGINEERING, "ECE121")).isTrue();
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "ECE121")).isFalse();
+		assertThat(rules.isAllowed(COMPUTER_ENGINEERING, "MNG101")).isFalse();
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "MNG101")).isTrue();
+		// Not compiled yet: evaluated against the department rules
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "ECE999")).isFalse();
+	}
+
+	@Test
+	void courseRulesOverrideTheDepartmentOnReload() {
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "ECE321")).isFalse();
+
+		// Cross-listed for mechanical students; the department rule still applies to the rest of ECE
+		stored.add(new EligibilityRule(EligibilityRule.Scope.COURSE, "ECE321", MECHANICAL_ENGINEERING,
+				EligibilityRule.Effect.ALLOW));
+		stored.add(new EligibilityRule(EligibilityRule.Scope.COURSE, "MTH101", null, EligibilityRule.Effect.DENY));
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "ECE321")).isFalse();
+		rules.reload();
+
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "ECE321")).isTrue();
+		assertThat(rules.isAllowed(MECHANICAL_ENGINEERING, "ECE121")).isFalse();
+		assertThat(rules.isAllowed(COMPUTER_ENGINEERING, "MTH101")).isFalse();
+		verify(ruleRepository, times(2)).findAll();
+	}
+}
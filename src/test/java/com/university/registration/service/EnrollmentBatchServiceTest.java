@@ -0,0 +1,86 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.BatchOperationSummary;
+import com.university.registration.entity.Course;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EnrollmentBatchServiceTest {
+
+	private static final String COURSE = "BAT101";
+
+	@Autowired
+	private EnrollmentBatchService batchService;
+
+	@Autowired
+	private SeatReservationService seatReservationService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Test
+	void rejectPromotesApproveSkipsAndGradesImport() {
+		Course course = new Course(COURSE, "Batch Course");
+		course.setCapacity(2);
+		courseRepository.save(course);
+		Enrollment first = enroll(course, Enrollment.Status.PENDING);
+		Enrollment second = enroll(course, Enrollment.Status.PENDING);
+		Enrollment waiting = enroll(course, Enrollment.Status.WAITLISTED);
+		assertThat(seatReservationService.getTakenSeats(COURSE)).isEqualTo(2);
+
+		// Both seats freed; the waitlisted enrollment moves into one of them
+		BatchOperationSummary rejected = batchService.rejectMatching(COURSE, null);
+		assertThat(rejected.updated()).isEqualTo(2);
+		assertThat(status(first)).isEqualTo(Enrollment.Status.REJECTED);
+		assertThat(status(waiting)).isEqualTo(Enrollment.Status.PENDING);
+		assertThat(seatReservationService.getTakenSeats(COURSE)).isEqualTo(1);
+		assertThat(seatReservationService.getWaitlisted(COURSE)).isZero();
+
+		BatchOperationSummary approved = batchService.approve(List.of(waiting.getId(), second.getId(), -1L));
+		assertThat(approved.updated()).isEqualTo(1);
+		assertThat(approved.getSkipped()).isEqualTo(2);
+		assertThat(status(waiting)).isEqualTo(Enrollment.Status.APPROVED);
+
+		String csv = "studentId,grade,passed\n"
+				+ waiting.getStudent().getId() + ",88.5,true\n"
+				+ first.getStudent().getId() + ",70,true\n"
+				+ "not,a,row\n";
+		BatchOperationSummary graded = batchService.importGrades(COURSE, new StringReader(csv));
+		assertThat(graded.requested()).isEqualTo(3);
+		assertThat(graded.updated()).isEqualTo(1);
+		assertThat(graded.problems()).hasSize(2);
+		Enrollment reloaded = enrollmentRepository.findById(waiting.getId()).orElseThrow();
+		assertThat(reloaded.getGrade()).isEqualTo(88.5);
+		assertThat(reloaded.getPassed()).isTrue();
+	}
+
+	private Enrollment enroll(Course course, Enrollment.Status status) {
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(studentRepository.save(new Student(null, "Batch Student", Student.Major.COMPUTER_ENGINEERING)));
+		enrollment.setCourse(course);
+		enrollment.setStatus(status);
+		return enrollmentRepository.save(enrollment);
+	}
+
+	private Enrollment.Status status(Enrollment enrollment) {
+		return enrollmentRepository.findStateById(enrollment.getId()).orElseThrow().status();
+	}
+}
@@ -0,0 +1,90 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.EnrollmentState;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.exception.CourseAlreadyAddedException;
+import com.university.registration.exception.EnrollmentNotFoundException;
+import com.university.registration.exception.EnrollmentStateConflictException;
+import com.university.registration.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class EnrollmentTransitionTest {
+
+	private static final String COURSE = "MTH101";
+
+	@Autowired
+	private CourseRegistrationService registrationService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Test
+	void duplicateRegistrationIsReportedFromTheUniqueKey() {
+		Long studentId = newStudent();
+		registrationService.registerCourse(studentId, COURSE);
+
+		assertThatThrownBy(() -> registrationService.registerCourse(studentId, COURSE))
+				.isInstanceOf(CourseAlreadyAddedException.class);
+	}
+
+	@Test
+	void concurrentApprovalsLetExactlyOneThrough() throws Exception {
+		Enrollment enrollment = registrationService.registerCourse(newStudent(), COURSE);
+		int admins = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(admins);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<EnrollmentState>> attempts = new ArrayList<>();
+		for (int i = 0; i < admins; i++) {
+			attempts.add(pool.submit(() -> {
+				start.await();
+				return registrationService.approveEnrollment(enrollment.getId(), null);
+			}));
+		}
+		start.countDown();
+
+		int approved = 0;
+		int conflicts = 0;
+		for (Future<EnrollmentState> attempt : attempts) {
+			try {
+				assertThat(attempt.get().status()).isEqualTo(Enrollment.Status.APPROVED);
+				approved++;
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(EnrollmentStateConflictException.class);
+				conflicts++;
+			}
+		}
+		pool.shutdown();
+
+		assertThat(approved).isEqualTo(1);
+		assertThat(conflicts).isEqualTo(admins - 1);
+	}
+
+	@Test
+	void staleVersionIsAConflict() {
+		Enrollment enrollment = registrationService.registerCourse(newStudent(), COURSE);
+		long rendered = enrollment.getVersion();
+		registrationService.setGrade(enrollment.getId(), 75.0, true, rendered);
+
+		assertThatThrownBy(() -> registrationService.rejectEnrollment(enrollment.getId(), rendered))
+				.isInstanceOf(EnrollmentStateConflictException.class);
+		assertThat(registrationService.rejectEnrollment(enrollment.getId(), rendered + 1).status())
+				.isEqualTo(Enrollment.Status.REJECTED);
+		assertThatThrownBy(() -> registrationService.approveEnrollment(-1L, null))
+				.isInstanceOf(EnrollmentNotFoundException.class);
+	}
+
+	private Long newStudent() {
+		return studentRepository.save(new Student(null, "Transition Student", Student.Major.COMPUTER_ENGINEERING)).getId();
+	}
+}
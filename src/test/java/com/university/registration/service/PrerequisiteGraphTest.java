@@ -0,0 +1,103 @@
+package com.university.registration.service;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.StudentSummary;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PrerequisiteGraphTest {
+
+	private final CourseRepository courseRepository = mock(CourseRepository.class);
+	private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+	private final StudentSummaryRepository summaryRepository = mock(StudentSummaryRepository.class);
+	private final PrerequisiteGraph graph = new PrerequisiteGraph(courseRepository, enrollmentRepository, summaryRepository);
+
+	@BeforeEach
+	void setUp() {
+		when(courseRepository.findAllCodes()).thenReturn(List.of("MTH101", "MTH102", "MTH201", "MTH301"));
+		when(courseRepository.findPrerequisitePairs()).thenReturn(List.of(
+				new Object[]{"MTH102", "MTH101"},
+				new Object[]{"MTH201", "MTH101"},
+				new Object[]{"MTH301", "MTH102"},
+				new Object[]{"MTH301", "MTH201"}
+		));
+		graph.rebuild();
+	}
+
+	@Test
+	void reportsMissingPrerequisite() {
+		when(enrollmentRepository.findPassedCourseCodes(1L)).thenReturn(List.of("MTH101", "MTH102"));
+
+		assertThat(graph.findMissingPrerequisite(1L, "MTH102")).isEmpty();
+		assertThat(graph.findMissingPrerequisite(1L, "MTH301")).contains("MTH201");
+		assertThat(graph.findMissingPrerequisite(1L, "MTH101")).isEmpty();
+	}
+
+	@Test
+	void loadsStudentHistoryOnce() {
+		when(enrollmentRepository.findPassedCourseCodes(1L)).thenReturn(List.of("MTH101"));
+
+		graph.findMissingPrerequisite(1L, "MTH102");
+		graph.findMissingPrerequisite(1L, "MTH201");
+		graph.findMissingPrerequisite(1L, "MTH301");
+
+		verify(enrollmentRepository, times(1)).findPassedCourseCodes(1L);
+	}
+
+	@Test
+	void readsPassedCoursesFromTheSummary() {
+		StudentSummary summary = new StudentSummary(1L);
+		summary.setPassedCourseCodes(Set.of("MTH101", "MTH102"));
+		when(summaryRepository.findById(1L)).thenReturn(Optional.of(summary));
+
+		assertThat(graph.findMissingPrerequisite(1L, "MTH301")).contains("MTH201");
+		verify(enrollmentRepository, never()).findPassedCourseCodes(1L);
+
+		// A refreshed summary replaces what was cached
+		summary.setPassedCourseCodes(Set.of("MTH101", "MTH102", "MTH201"));
+		graph.onSummariesChanged(new StudentSummaryChangedEvent(List.of(1L)));
+		assertThat(graph.findMissingPrerequisite(1L, "MTH301")).isEmpty();
+	}
+
+	@Test
+	void appliesEnrollmentChangesToCachedStudents() {
+		when(enrollmentRepository.findPassedCourseCodes(1L)).thenReturn(List.of("MTH101", "MTH102"));
+		assertThat(graph.findMissingPrerequisite(1L, "MTH301")).contains("MTH201");
+
+		graph.onEnrollmentChanged(new EnrollmentChangedEvent(10L, 1L, "MTH201", Enrollment.Status.APPROVED, 90.0, true, null));
+		assertThat(graph.findMissingPrerequisite(1L, "MTH301")).isEmpty();
+
+		graph.onEnrollmentChanged(new EnrollmentChangedEvent(10L, 1L, "MTH201", Enrollment.Status.REJECTED, 90.0, true, null));
+		assertThat(graph.findMissingPrerequisite(1L, "MTH301")).isEqualTo(Optional.of("MTH201"));
+	}
+
+	@Test
+	void rebuildPicksUpEditedPrerequisites() {
+		when(enrollmentRepository.findPassedCourseCodes(1L)).thenReturn(List.of("MTH101"));
+		assertThat(graph.findMissingPrerequisite(1L, "ECE422")).isEmpty();
+
+		when(courseRepository.findAllCodes()).thenReturn(List.of("MTH101", "MTH102", "MTH201", "MTH301", "ECE422"));
+		when(courseRepository.findPrerequisitePairs()).thenReturn(List.of(
+				new Object[]{"MTH102", "MTH101"},
+				new Object[]{"MTH201", "MTH101"},
+				new Object[]{"MTH301", "MTH102"},
+				new Object[]{"MTH301", "MTH201"},
+				new Object[]{"ECE422", "MTH301"}
+		));
+		graph.rebuild();
+
+		assertThat(graph.getPrerequisiteCodes("ECE422")).containsExactly("MTH301");
+		assertThat(graph.findMissingPrerequisite(1L, "ECE422")).contains("MTH301");
+		assertThat(graph.getPrerequisiteCodes("MTH301")).containsExactlyInAnyOrder("MTH102", "MTH201");
+	}
+}
@@ -0,0 +1,57 @@
+package com.university.registration.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RegistrationMetricsTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CourseCatalog courseCatalog = mock(CourseCatalog.class);
+	private final RegistrationMetrics metrics = new RegistrationMetrics(meterRegistry, courseCatalog);
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void recordsOutcomeAndCourse() {
+		when(courseCatalog.contains("ECE121")).thenReturn(true);
+
+		metrics.completed(metrics.start(), "ECE121", RegistrationMetrics.WAITLISTED);
+		metrics.completed(metrics.start(), "NOPE999", "CourseNotFoundException");
+
+		assertThat(meterRegistry.get("registration.requests").tag("outcome", "WAITLISTED").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("registration.course.requests")
+				.tags("course", "ECE121", "result", "accepted").counter().count()).isEqualTo(1);
+		// Unknown codes do not get their own series
+		assertThat(meterRegistry.get("registration.course.requests")
+				.tags("course", RegistrationMetrics.UNKNOWN_COURSE, "result", "rejected").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void successIsRecordedAsRolledBackWhenCommitFails() {
+		when(courseCatalog.contains("ECE121")).thenReturn(true);
+		TransactionSynchronizationManager.initSynchronization();
+
+		metrics.completed(metrics.start(), "ECE121", RegistrationMetrics.ACCEPTED);
+		assertThat(meterRegistry.find("registration.requests").timer()).isNull();
+
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertThat(meterRegistry.get("registration.requests")
+				.tag("outcome", RegistrationMetrics.ROLLED_BACK).timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("registration.course.requests")
+				.tags("course", "ECE121", "result", "rejected").counter().count()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,67 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.RegistrationTicket;
+import com.university.registration.entity.Student;
+import com.university.registration.exception.WrongCourseMajorException;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RegistrationQueueTest {
+
+	@Autowired
+	private RegistrationQueue registrationQueue;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Test
+	void queuedRegistrationsReachAFinalOutcome() throws InterruptedException {
+		Student student = studentRepository.save(new Student(null, "Queued Student", Student.Major.COMPUTER_ENGINEERING));
+
+		RegistrationTicket calculus = registrationQueue.submit(student.getId(), student.getMajor(), "MTH101");
+		RegistrationTicket logic = registrationQueue.submit(student.getId(), student.getMajor(), "ECE121");
+		RegistrationTicket again = registrationQueue.submit(student.getId(), student.getMajor(), "MTH101");
+		assertThat(calculus.state()).isEqualTo(RegistrationTicket.State.QUEUED);
+
+		RegistrationTicket accepted = await(student, calculus.requestId());
+		assertThat(accepted.state()).isEqualTo(RegistrationTicket.State.ACCEPTED);
+		assertThat(enrollmentRepository.findById(accepted.enrollmentId())).isPresent();
+		assertThat(await(student, logic.requestId()).state()).isEqualTo(RegistrationTicket.State.ACCEPTED);
+		RegistrationTicket duplicate = await(student, again.requestId());
+		assertThat(duplicate.state()).isEqualTo(RegistrationTicket.State.REJECTED);
+		assertThat(duplicate.message()).contains("already enrolled");
+
+		// Other students cannot see the request
+		assertThat(registrationQueue.getTicket(student.getId() + 1, calculus.requestId())).isEmpty();
+	}
+
+	@Test
+	void ineligibleRegistrationsAreRejectedBeforeQueueing() {
+		Student student = studentRepository.save(new Student(null, "Ineligible Student", Student.Major.MECHANICAL_ENGINEERING));
+
+		assertThatThrownBy(() -> registrationQueue.submit(student.getId(), student.getMajor(), "ECE121"))
+				.isInstanceOf(WrongCourseMajorException.class);
+	}
+
+	private RegistrationTicket await(Student student, String requestId) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		RegistrationTicket ticket = registrationQueue.getTicket(student.getId(), requestId).orElseThrow();
+		while (!ticket.isFinal() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			ticket = registrationQueue.getTicket(student.getId(), requestId).orElseThrow();
+		}
+		return ticket;
+	}
+}
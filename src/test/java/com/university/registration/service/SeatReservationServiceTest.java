@@ -0,0 +1,110 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.CourseOverview;
+import com.university.registration.entity.Enrollment;
+import com.university.registration.exception.CourseFullException;
+import com.university.registration.repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class SeatReservationServiceTest {
+
+	private static final int CAPACITY = 100;
+	private static final int WAITLIST_LIMIT = 50;
+
+	private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+	private final CourseCatalog courseCatalog = mock(CourseCatalog.class);
+	private final SeatReservationService service = new SeatReservationService(enrollmentRepository, courseCatalog);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "waitlistLimit", WAITLIST_LIMIT);
+		when(courseCatalog.findCourse("ECE121")).thenReturn(Optional.of(
+				new CourseOverview("ECE121", "Digital Logic Design", CAPACITY, List.of(), List.of())));
+	}
+
+	@Test
+	void neverOverAllocatesUnderContention() throws Exception {
+		int threads = 64;
+		int attemptsPerThread = 40;
+		AtomicInteger seats = new AtomicInteger();
+		AtomicInteger waitlist = new AtomicInteger();
+		AtomicInteger full = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < attemptsPerThread; i++) {
+					try {
+						if (service.reserve("ECE121") == SeatReservationService.Reservation.SEAT) {
+							seats.incrementAndGet();
+						} else {
+							waitlist.incrementAndGet();
+						}
+					} catch (CourseFullException e) {
+						full.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(seats).hasValue(CAPACITY);
+		assertThat(waitlist).hasValue(WAITLIST_LIMIT);
+		assertThat(full).hasValue(threads * attemptsPerThread - CAPACITY - WAITLIST_LIMIT);
+		assertThat(service.getTakenSeats("ECE121")).isEqualTo(CAPACITY);
+		assertThat(service.getWaitlisted("ECE121")).isEqualTo(WAITLIST_LIMIT);
+	}
+
+	@Test
+	void releasedSeatCanBeTakenAgain() {
+		for (int i = 0; i < CAPACITY; i++) {
+			service.reserve("ECE121");
+		}
+		assertThat(service.reserve("ECE121")).isEqualTo(SeatReservationService.Reservation.WAITLIST);
+
+		service.releaseSeat("ECE121");
+
+		assertThat(service.reserve("ECE121")).isEqualTo(SeatReservationService.Reservation.SEAT);
+		assertThat(service.getTakenSeats("ECE121")).isEqualTo(CAPACITY);
+	}
+
+	@Test
+	void startsFromDatabaseCountsAndReconciles() {
+		when(enrollmentRepository.countByCourseCodeAndStatusIn(eq("ECE121"), any())).thenReturn(CAPACITY - 1L, 0L);
+		assertThat(service.reserve("ECE121")).isEqualTo(SeatReservationService.Reservation.SEAT);
+		assertThatThrownBy(() -> {
+			for (int i = 0; i <= WAITLIST_LIMIT; i++) {
+				service.reserve("ECE121");
+			}
+		}).isInstanceOf(CourseFullException.class);
+
+		when(enrollmentRepository.countByCourseAndStatus()).thenReturn(List.<Object[]>of(
+				new Object[]{"ECE121", Enrollment.Status.APPROVED, 10L},
+				new Object[]{"ECE121", Enrollment.Status.PENDING, 5L}
+		));
+		service.reconcile();
+
+		assertThat(service.getTakenSeats("ECE121")).isEqualTo(15);
+		assertThat(service.getWaitlisted("ECE121")).isZero();
+	}
+}
@@ -0,0 +1,116 @@
+package com.university.registration.service;
+
+import com.university.registration.entity.Enrollment;
+import com.university.registration.entity.Student;
+import com.university.registration.entity.StudentSummary;
+import com.university.registration.repository.StudentRepository;
+import com.university.registration.repository.StudentSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class StudentSummaryServiceTest {
+
+	@Autowired
+	private CourseRegistrationService registrationService;
+
+	@Autowired
+	private StudentSummaryService summaryService;
+
+	@Autowired
+	private StudentSummaryRepository summaryRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Test
+	void followsEnrollmentChangesAsTheyCommit() {
+		Long studentId = studentRepository.save(
+				new Student(null, "Summary Student", Student.Major.COMPUTER_ENGINEERING)).getId();
+
+		Enrollment calculus = registrationService.registerCourse(studentId, "MTH101");
+		assertThat(stored(studentId).getPendingRequests()).isEqualTo(1);
+
+		registrationService.approveEnrollment(calculus.getId(), null);
+		registrationService.setGrade(calculus.getId(), 87.5, true, null);
+		StudentSummary graded = stored(studentId);
+		assertThat(graded.getPendingRequests()).isZero();
+		assertThat(graded.getPassedCourseCodes()).containsExactly("MTH101");
+		assertThat(graded.getEarnedCredits()).isEqualTo(3);
+		assertThat(graded.getGpa()).isEqualTo(3.7);
+
+		// The prerequisite check reads the refreshed summary
+		Enrollment next = registrationService.registerCourse(studentId, "MTH102");
+		assertThat(stored(studentId).getPendingRequests()).isEqualTo(1);
+		registrationService.rejectEnrollment(next.getId(), null);
+		assertThat(stored(studentId).getPendingRequests()).isZero();
+	}
+
+	@Autowired
+	private ApplicationEvents events;
+
+	@Test
+	void appliesEachChangeAsADelta() {
+		Long studentId = studentRepository.save(
+				new Student(null, "Delta Student", Student.Major.COMPUTER_ENGINEERING)).getId();
+		Enrollment calculus = registrationService.registerCourse(studentId, "MTH101");
+		registrationService.approveEnrollment(calculus.getId(), null);
+		events.clear();
+
+		// Grading without passing changes the GPA only, so nothing is announced
+		registrationService.setGrade(calculus.getId(), 45.0, false, null);
+		assertThat(stored(studentId).getGpa()).isEqualTo(0.0);
+		assertThat(events.stream(StudentSummaryChangedEvent.class)).isEmpty();
+
+		// The regrade replaces the first grade rather than adding to it
+		registrationService.setGrade(calculus.getId(), 92.0, true, null);
+		StudentSummary passed = stored(studentId);
+		assertThat(passed.getGradedCredits()).isEqualTo(3);
+		assertThat(passed.getEarnedCredits()).isEqualTo(3);
+		assertThat(passed.getGpa()).isEqualTo(4.0);
+		assertThat(passed.getPassedCourseCodes()).containsExactly("MTH101");
+		assertThat(events.stream(StudentSummaryChangedEvent.class))
+				.anySatisfy(event -> assertThat(event.studentIds()).contains(studentId));
+
+		events.clear();
+		registrationService.registerCourse(studentId, "MTH102");
+		assertThat(stored(studentId).getPendingRequests()).isEqualTo(1);
+		assertThat(events.stream(StudentSummaryChangedEvent.class)).isEmpty();
+
+		registrationService.rejectEnrollment(calculus.getId(), null);
+		StudentSummary rejected = stored(studentId);
+		assertThat(rejected.getPassedCourseCodes()).isEmpty();
+		assertThat(rejected.getGradedCredits()).isZero();
+		assertThat(rejected.getEarnedCredits()).isZero();
+		assertThat(rejected.getPendingRequests()).isEqualTo(1);
+	}
+
+	@Test
+	void rebuildRestoresMissingSummaries() {
+		Long studentId = studentRepository.save(
+				new Student(null, "Rebuilt Student", Student.Major.COMPUTER_ENGINEERING)).getId();
+		Enrollment enrollment = registrationService.registerCourse(studentId, "MTH101");
+		registrationService.approveEnrollment(enrollment.getId(), null);
+		registrationService.setGrade(enrollment.getId(), 45.0, false, null);
+		summaryRepository.deleteById(studentId);
+
+		// Computed on the fly until the rebuild stores it again
+		assertThat(summaryService.getSummary(studentId).getGpa()).isEqualTo(0.0);
+		summaryService.rebuildAll();
+
+		StudentSummary rebuilt = stored(studentId);
+		assertThat(rebuilt.getPassedCourseCodes()).isEmpty();
+		assertThat(rebuilt.getGradedCredits()).isEqualTo(3);
+		assertThat(rebuilt.getEarnedCredits()).isZero();
+	}
+
+	private StudentSummary stored(Long studentId) {
+		return summaryRepository.findById(studentId).orElseThrow();
+	}
+}
@@ -0,0 +1,112 @@
+package com.university.registration.service;
+
+import com.university.registration.dto.BulkRegistrationReport;
+import com.university.registration.dto.RegistrationRequest;
+import com.university.registration.entity.*;
+import com.university.registration.exception.ScheduleConflictException;
+import com.university.registration.repository.CourseRepository;
+import com.university.registration.repository.EnrollmentRepository;
+import com.university.registration.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TimetableTest {
+
+	@Autowired
+	private CourseRegistrationService registrationService;
+
+	@Autowired
+	private BulkRegistrationService bulkRegistrationService;
+
+	@Autowired
+	private EnrollmentExportService exportService;
+
+	@Autowired
+	private CourseCatalog courseCatalog;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@BeforeEach
+	void courses() {
+		if (!courseRepository.existsById("TIM101")) {
+			// TIM102 overlaps TIM101 from 10:00; TIM103 starts as TIM101 ends
+			course("TIM101", "09:00", "10:15");
+			course("TIM102", "10:00", "11:00");
+			course("TIM103", "10:15", "11:30");
+			courseCatalog.invalidate();
+		}
+	}
+
+	@Test
+	void registrationIsRejectedWhenMeetingsOverlap() {
+		Long studentId = student();
+		registrationService.registerCourse(studentId, "TIM101");
+
+		assertThatThrownBy(() -> registrationService.registerCourse(studentId, "TIM102"))
+				.isInstanceOf(ScheduleConflictException.class)
+				.hasMessageContaining("TIM101");
+		// Back to back is fine
+		registrationService.registerCourse(studentId, "TIM103");
+	}
+
+	@Test
+	void bulkRegistrationSeesSeatsTakenEarlierInTheSameChunk() {
+		Long studentId = student();
+		BulkRegistrationReport report = bulkRegistrationService.registerAll(List.of(
+				new RegistrationRequest(studentId, "TIM101"),
+				new RegistrationRequest(studentId, "TIM102")));
+
+		assertThat(report.accepted()).isEqualTo(1);
+		assertThat(report.results().get(1).message()).contains("Schedule conflict");
+	}
+
+	@Test
+	void termReportListsEveryClash() throws Exception {
+		// Written behind the check's back, as an import or a direct database edit would
+		Long studentId = student();
+		for (String code : List.of("TIM101", "TIM102", "TIM103")) {
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(studentRepository.getReferenceById(studentId));
+			enrollment.setCourse(courseRepository.getReferenceById(code));
+			enrollment.setStatus(Enrollment.Status.PENDING);
+			enrollmentRepository.save(enrollment);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.writeScheduleConflicts(out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8).lines().filter(line -> line.startsWith(studentId + ",")))
+				.containsExactly(
+						studentId + ",Timetable Student,TIM101,TIM102,MONDAY,10:00",
+						studentId + ",Timetable Student,TIM102,TIM103,MONDAY,10:15");
+	}
+
+	private void course(String code, String start, String end) {
+		Course course = new Course(code, "Timetable " + code);
+		course.getMeetings().add(new Meeting(DayOfWeek.MONDAY, LocalTime.parse(start), LocalTime.parse(end)));
+		courseRepository.save(course);
+	}
+
+	private Long student() {
+		return studentRepository.save(new Student(null, "Timetable Student", Student.Major.COMPUTER_ENGINEERING)).getId();
+	}
+}